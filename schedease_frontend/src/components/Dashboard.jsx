@@ -12,6 +12,7 @@ import useFilters from "../hooks/useFilters";
 import { userKey } from "../utils/storage";
 import { apiFetch } from "../utils/api";
 import { parseScheduleString } from "../utils/parse";
+import { decodeSlotMask, slotMasksIntersect } from "../utils/slots";
 import SetFilter from "./SetFilter";
 import "../App.css";
 
@@ -185,7 +186,13 @@ export default function Dashboard() {
         // Check for schedule conflicts
         const conflictingSubject = dataList.find((subject) => {
           const subjectId = String(subject.data_id ?? `${subject.subject_code}-${subject.section || ""}`);
-          return prev.has(subjectId) && subjectId !== id && hasScheduleConflict(item.schedule, subject.schedule);
+          if (!prev.has(subjectId) || subjectId === id) return false;
+          // Disjoint server-parsed slot masks rule a conflict out cheaply. The masks round to
+          // 10-minute slots, so a shared slot is confirmed on the exact times.
+          const a = decodeSlotMask(item.slotMask);
+          const b = decodeSlotMask(subject.slotMask);
+          if (a && b && !slotMasksIntersect(a, b)) return false;
+          return hasScheduleConflict(item.schedule, subject.schedule);
         });
         
         if (conflictingSubject) {
@@ -51,6 +51,8 @@ async function saveSubjectToAPI(subject) {
       enrolled: subject.enrolled,
       assessed: subject.assessed,
       isClosed: subject.is_closed ? "true" : "false",
+      // lets the server reject the update if someone else saved this subject since we loaded it
+      version: subject.version,
       user: { userId: Number.parseInt(userId, 10) },
     };
 
@@ -105,42 +107,31 @@ export default function useSubjects(initial = []) {
 
   const addMany = useCallback(async (parsedArray = []) => {
     try {
-      const newSubjects = [];
       const userId = localStorage.getItem("user_id");
       if (!userId) {
         throw new Error("No user_id found, cannot add subjects");
       }
-      for (const p of parsedArray) {
-        // Map to backend format
-        const backendSubject = {
-          number: p.number,
-          offeringDept: p.offering_dept || p.offeringDept,
-          subject: p.subject_code || p.subject,
-          subjectTitle: p.subject_title || p.subjectTitle,
-          creditedUnits: p.credited_units || p.creditedUnits,
-          section: p.section,
-          schedule: p.schedule,
-          room: p.room,
-          totalSlots: p.total_slots || p.totalSlots,
-          enrolled: p.enrolled,
-          assessed: p.assessed,
-          isClosed: p.is_closed ? "true" : "false",
-          user: { userId: Number.parseInt(userId, 10) },
-        };
-        const created = await apiFetch("/data", { method: "POST", body: backendSubject });
-        // Map back
-        const frontendSubject = {
-          ...created,
-          data_id: created.dataId,
-          subject_code: created.subject,
-          subject_title: created.subjectTitle,
-          credited_units: created.creditedUnits,
-          total_slots: created.totalSlots,
-          is_closed: created.isClosed === "true" || created.isClosed === true,
-        };
-        newSubjects.push(frontendSubject);
+      // Map to backend format and import in one request
+      const rows = parsedArray.map((p) => ({
+        number: p.number,
+        offeringDept: p.offering_dept || p.offeringDept,
+        subject: p.subject_code || p.subject,
+        subjectTitle: p.subject_title || p.subjectTitle,
+        creditedUnits: p.credited_units || p.creditedUnits,
+        section: p.section,
+        schedule: p.schedule,
+        room: p.room,
+        totalSlots: p.total_slots || p.totalSlots,
+        enrolled: p.enrolled,
+        assessed: p.assessed,
+        isClosed: p.is_closed ? "true" : "false",
+      }));
+      const result = await apiFetch(`/data/bulk?userId=${userId}`, { method: "POST", body: rows });
+      if (result?.failed) {
+        console.warn(`Bulk import: ${result.failed} row(s) were rejected`, result.results.filter((r) => r.error));
       }
-      setSubjects((prev) => prev.concat(newSubjects));
+      // Reload so the new rows come back with their generated ids
+      setSubjects(await loadSubjectsFromAPI());
     } catch (error) {
       console.error("Failed to add subjects:", error);
       // Fallback to local if API fails
@@ -0,0 +1,25 @@
+// Helpers for the server-side slot mask (DataEntity.slotMask).
+// The mask is a base64 bitset of 10-minute slots, 144 per day, Monday first.
+
+export function decodeSlotMask(b64) {
+  if (!b64) return null;
+  try {
+    const bin = atob(b64);
+    const bytes = new Uint8Array(bin.length);
+    for (let i = 0; i < bin.length; i++) bytes[i] = bin.charCodeAt(i);
+    return bytes;
+  } catch {
+    return null;
+  }
+}
+
+// Slots are rounded outwards, so back-to-back classes such as 10:30-11:45 and 11:45-1:00
+// share a slot: false rules a conflict out, true has to be confirmed on the exact times.
+export function slotMasksIntersect(a, b) {
+  if (!a || !b) return false;
+  const n = Math.min(a.length, b.length);
+  for (let i = 0; i < n; i++) {
+    if (a[i] & b[i]) return true;
+  }
+  return false;
+}
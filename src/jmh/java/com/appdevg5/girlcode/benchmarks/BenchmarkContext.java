@@ -0,0 +1,41 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.appdevg5.girlcode.GirlcodeApplication;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+
+// Boots the application without the web layer against a private in-memory H2 database.
+// Settings go in as command-line arguments so they win over src/test/resources/application.properties.
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "schedease.bulk.chunk-size=200",
+                "schedease.clear.chunk-size=1000"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(GirlcodeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+
+    static UserEntity createUser(ConfigurableApplicationContext context, String email) {
+        UserEntity user = new UserEntity();
+        user.setUsername(email);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return context.getBean(UserRepository.class).save(user);
+    }
+}
@@ -0,0 +1,92 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appdevg5.girlcode.dto.BulkImportResult;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.service.BulkRowReader;
+import com.appdevg5.girlcode.service.DataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Importing a list through POST /api/data/bulk versus one POST /api/data per row
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BulkInsertBenchmark {
+
+    @Param({ "100", "1000" })
+    int rows;
+
+    ConfigurableApplicationContext context;
+    DataService dataService;
+    ObjectMapper objectMapper;
+    JdbcTemplate jdbc;
+    UserEntity user;
+    byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("bulk");
+        dataService = context.getBean(DataService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        user = BenchmarkContext.createUser(context, "bulk@example.com");
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"subject\":\"CS").append(i).append("\",\"subjectTitle\":\"Course ").append(i)
+                    .append("\",\"section\":\"G1\",\"schedule\":\"MWF 8:00 AM - 9:00 AM / TTH 1:00 PM - 2:30 PM\"")
+                    .append(",\"room\":\"NGE").append(i % 40).append("\",\"isClosed\":\"false\"}\n");
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Iteration)
+    public void empty() {
+        jdbc.update("DELETE FROM data_table");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public BulkImportResult bulk() {
+        return dataService.postDataBulk(user.getUserId(),
+                BulkRowReader.ndjson(objectMapper, new ByteArrayInputStream(ndjson)));
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) {
+        BulkRowReader reader = BulkRowReader.ndjson(objectMapper, new ByteArrayInputStream(ndjson));
+        while (reader.hasNext()) {
+            DataEntity data = reader.next().data();
+            data.setUser(user);
+            blackhole.consume(dataService.postData(data));
+        }
+    }
+}
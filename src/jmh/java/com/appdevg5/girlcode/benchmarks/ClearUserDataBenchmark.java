@@ -0,0 +1,105 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appdevg5.girlcode.dto.ClearResult;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.DataBatchRepository;
+import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ScheduleService;
+
+// One clear of a freshly filled list; each schedule keeps PICKS of the subjects alive
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+public class ClearUserDataBenchmark {
+
+    static final int PICKS = 5;
+
+    @Param({ "100", "2000" })
+    int subjects;
+
+    @Param({ "0", "50" })
+    int schedules;
+
+    ConfigurableApplicationContext context;
+    DataService dataService;
+    ScheduleService scheduleService;
+    DataBatchRepository batchRepo;
+    JdbcTemplate jdbc;
+    UserEntity user;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("clear");
+        dataService = context.getBean(DataService.class);
+        scheduleService = context.getBean(ScheduleService.class);
+        batchRepo = context.getBean(DataBatchRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        user = BenchmarkContext.createUser(context, "clear@example.com");
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        List<DataEntity> rows = new ArrayList<>();
+        for (int i = 0; i < subjects; i++) {
+            DataEntity data = new DataEntity();
+            data.setSubject("CS" + i);
+            data.setSection("G" + (i % 3));
+            data.setSchedule("MWF 8:00 AM - 9:00 AM");
+            rows.add(data);
+        }
+        List<Long> ids = batchRepo.insertBatch(user.getUserId(), rows);
+        for (int s = 0; s < schedules; s++) {
+            StringBuilder picked = new StringBuilder("[");
+            for (int p = 0; p < PICKS; p++) {
+                picked.append(p == 0 ? "" : ",").append(ids.get((s * PICKS + p) % ids.size()));
+            }
+            ScheduleEntity schedule = new ScheduleEntity();
+            schedule.setUser(user);
+            schedule.setScheduleName("Plan " + s);
+            schedule.setSubjects(picked.append(']').toString());
+            scheduleService.postScheduleRecord(schedule);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void empty() {
+        jdbc.update("DELETE FROM schedule_subject");
+        jdbc.update("DELETE FROM schedule");
+        jdbc.update("DELETE FROM data_table");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ClearResult clear() {
+        return dataService.clearUserDataWithCounts(user.getUserId());
+    }
+}
@@ -0,0 +1,144 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.appdevg5.girlcode.service.ColumnarJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Response bodies of GET /api/data?userId= and GET /api/schedule/getAllSchedules?userId=, as plain JSON and
+// as the columnar format, with the gzip step the server adds for large bodies. Payload sizes are printed at setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    static final int SUBJECTS_PER_SCHEDULE = 6;
+
+    @Param({ "50", "1000" })
+    int size;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    List<DataEntity> subjects;
+    List<ScheduleEntity> schedules;
+
+    @Setup
+    public void build() {
+        UserEntity user = new UserEntity();
+        user.setUserId(1L);
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+
+        subjects = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            DataEntity data = new DataEntity();
+            data.setDataId((long) i);
+            data.setUser(user);
+            data.setNumber(i);
+            data.setOfferingDept("CCS");
+            data.setSubject("CS" + i);
+            data.setSubjectTitle("Course number " + i);
+            data.setCreditedUnits(3);
+            data.setSection("G" + (i % 4));
+            data.setSchedule("MWF 8:00 AM - 9:00 AM / TTH 1:00 PM - 2:30 PM");
+            data.setSlotMask(ScheduleParser.encode(data.getSchedule()).toBytes());
+            data.setRoom("NGE" + (i % 40));
+            data.setTotalSlots(40);
+            data.setEnrolled(i % 40);
+            data.setAssessed(i % 40);
+            data.setIsClosed("false");
+            subjects.add(data);
+        }
+
+        schedules = new ArrayList<>();
+        for (int s = 0; s < size; s++) {
+            Set<DataEntity> picked = new LinkedHashSet<>();
+            for (int p = 0; p < SUBJECTS_PER_SCHEDULE; p++) {
+                picked.add(subjects.get((s + p) % size));
+            }
+            ScheduleEntity schedule = new ScheduleEntity();
+            schedule.setScheduleId(s);
+            schedule.setUser(user);
+            schedule.setScheduleName("Plan " + s);
+            schedule.setSubjectList(picked);
+            schedules.add(schedule);
+        }
+
+        try {
+            System.out.printf("%nbytes (raw / gzip) at size %d:%n", size);
+            printSize("subjects json", objectMapper.writeValueAsBytes(subjects));
+            printSize("subjects columns", ColumnarJson.subjects(objectMapper, subjects));
+            printSize("schedules json", objectMapper.writeValueAsBytes(schedules));
+            printSize("schedules columns", ColumnarJson.schedules(objectMapper, schedules));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void printSize(String label, byte[] body) throws IOException {
+        System.out.printf("  %-18s %8d / %7d%n", label, body.length, gzip(body).length);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] subjects() throws Exception {
+        return objectMapper.writeValueAsBytes(subjects);
+    }
+
+    @Benchmark
+    public byte[] schedules() throws Exception {
+        return objectMapper.writeValueAsBytes(schedules);
+    }
+
+    @Benchmark
+    public byte[] subjectsColumns() throws Exception {
+        return ColumnarJson.subjects(objectMapper, subjects);
+    }
+
+    @Benchmark
+    public byte[] schedulesColumns() throws Exception {
+        return ColumnarJson.schedules(objectMapper, schedules);
+    }
+
+    @Benchmark
+    public byte[] subjectsGzip() throws Exception {
+        return gzip(objectMapper.writeValueAsBytes(subjects));
+    }
+
+    @Benchmark
+    public byte[] subjectsColumnsGzip() throws Exception {
+        return gzip(ColumnarJson.subjects(objectMapper, subjects));
+    }
+}
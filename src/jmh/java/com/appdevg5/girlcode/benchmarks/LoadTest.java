@@ -0,0 +1,281 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.appdevg5.girlcode.GirlcodeApplication;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.DataBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Enlistment-peak load test: many concurrent clients against the real HTTP stack, once per threading setup.
+ * Every SQL statement is delayed by --latency-ms to stand in for a networked MySQL.
+ * Most requests read a user's cached subject list (no connection needed); the rest page through the
+ * table (one connection each). With platform threads the cached reads queue behind requests parked on
+ * the pool; with virtual threads they don't.
+ *
+ * mvn -P benchmarks -DskipTests test-compile exec:exec@load-test [-Dload.args="clients=2000 seconds=20"]
+ * Results are printed and written to target/load-test.json.
+ */
+public class LoadTest {
+
+    record Scenario(String name, boolean virtualThreads, boolean gate) {
+    }
+
+    record Result(String scenario, long requests, long errors, double throughput,
+            Map<String, Double> p50Millis, Map<String, Double> p99Millis) {
+    }
+
+    static final String[] KINDS = { "cachedList", "page" };
+
+    public static void main(String[] args) throws Exception {
+        // devtools is on this classpath and would otherwise relaunch main() in a restart classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "clients", "1000", "seconds", "15", "warmup", "5", "latency-ms", "5",
+                "users", "50", "page-share", "0.2", "out", "target/load-test.json"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : List.of(
+                new Scenario("platform-threads", false, false),
+                new Scenario("virtual-threads", true, false),
+                new Scenario("virtual-threads+jdbc-gate", true, true))) {
+            Result result = run(scenario, options);
+            System.out.printf("%-28s %8.0f req/s  errors %-6d p50 %s  p99 %s%n", result.scenario(),
+                    result.throughput(), result.errors(), result.p50Millis(), result.p99Millis());
+            results.add(result);
+        }
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(out.toFile(), Map.of("options", options, "results", results));
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    static Result run(Scenario scenario, Map<String, String> options) throws Exception {
+        long latencyMs = Long.parseLong(options.get("latency-ms"));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GirlcodeApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowStatements(latencyMs)))
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + scenario.name()
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=" + scenario.virtualThreads(),
+                        "--schedease.jdbc.gate.enabled=" + scenario.gate(),
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--server.tomcat.threads.max=200");
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            List<Long> userIds = seed(context, Integer.parseInt(options.get("users")));
+            double pageShare = Double.parseDouble(options.get("page-share"));
+
+            Load load = new Load(List.of(base), userIds, pageShare);
+            load.drive(Integer.parseInt(options.get("clients")), Integer.parseInt(options.get("warmup")), false);
+            return load.drive(Integer.parseInt(options.get("clients")), Integer.parseInt(options.get("seconds")), true)
+                    .summarize(scenario.name());
+        } finally {
+            context.close();
+        }
+    }
+
+    static List<Long> seed(ConfigurableApplicationContext context, int users) {
+        DataBatchRepository batchRepo = context.getBean(DataBatchRepository.class);
+        List<Long> ids = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            UserEntity user = BenchmarkContext.createUser(context, "load" + u + "@example.com");
+            List<DataEntity> rows = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                DataEntity data = new DataEntity();
+                data.setSubject("CS" + i);
+                data.setSection("G" + (i % 3));
+                data.setSchedule("MWF 8:00 AM - 9:00 AM");
+                rows.add(data);
+            }
+            batchRepo.insertBatch(user.getUserId(), rows);
+            ids.add(user.getUserId());
+        }
+        return ids;
+    }
+
+    // Wraps the DataSource so every statement execution sleeps first, like a network round trip
+    static BeanPostProcessor slowStatements(long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || latencyMs <= 0) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return delayed(super.getConnection(), Connection.class);
+                    }
+                };
+            }
+
+            @SuppressWarnings("unchecked")
+            <T> T delayed(T target, Class<T> type) {
+                return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(latencyMs);
+                    }
+                    try {
+                        Object result = method.invoke(target, args);
+                        if (result instanceof PreparedStatement statement) {
+                            return delayed(statement, PreparedStatement.class);
+                        }
+                        if (result instanceof Statement statement) {
+                            return delayed(statement, Statement.class);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+            }
+        };
+    }
+
+    // Requests for a user go to bases[userId mod bases], as a balancer hashing on the user would send them
+    static final class Load {
+        final List<String> bases;
+        final List<Long> userIds;
+        final double pageShare;
+        final HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        final List<long[]>[] samples;
+        final AtomicLong errors = new AtomicLong();
+        long elapsedNanos;
+
+        @SuppressWarnings("unchecked")
+        Load(List<String> bases, List<Long> userIds, double pageShare) {
+            this.bases = bases;
+            this.userIds = userIds;
+            this.pageShare = pageShare;
+            this.samples = new List[KINDS.length];
+        }
+
+        Load drive(int clients, int seconds, boolean record) throws InterruptedException {
+            for (int k = 0; k < KINDS.length; k++) {
+                samples[k] = new ArrayList<>();
+            }
+            errors.set(0);
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    pool.submit(() -> client(end, record));
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+            return this;
+        }
+
+        void client(long end, boolean record) {
+            Samples[] mine = { new Samples(), new Samples() };
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < end) {
+                Long userId = userIds.get(random.nextInt(userIds.size()));
+                int kind = random.nextDouble() < pageShare ? 1 : 0;
+                String path = kind == 0 ? "/data?userId=" + userId
+                        : "/data?userId=" + userId + "&limit=20&after=" + random.nextInt(1000);
+                long sent = System.nanoTime();
+                try {
+                    String base = bases.get((int) Math.floorMod(userId, (long) bases.size()));
+                    HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(base + path)).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (record) {
+                    mine[kind].add(System.nanoTime() - sent);
+                }
+            }
+            for (int k = 0; k < KINDS.length; k++) {
+                synchronized (samples[k]) {
+                    samples[k].add(mine[k].toArray());
+                }
+            }
+        }
+
+        Result summarize(String scenario) {
+            Map<String, Double> p50 = new LinkedHashMap<>();
+            Map<String, Double> p99 = new LinkedHashMap<>();
+            long total = 0;
+            for (int k = 0; k < KINDS.length; k++) {
+                long[] all = samples[k].stream().flatMapToLong(Arrays::stream).sorted().toArray();
+                total += all.length;
+                p50.put(KINDS[k], percentile(all, 0.50));
+                p99.put(KINDS[k], percentile(all, 0.99));
+            }
+            return new Result(scenario, total, errors.get(), total / (elapsedNanos / 1e9), p50, p99);
+        }
+
+        static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    // Growable long[] so recording a latency doesn't box
+    static final class Samples {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
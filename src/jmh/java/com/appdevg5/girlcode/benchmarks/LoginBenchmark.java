@@ -0,0 +1,83 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.service.UserService;
+
+// Logins cycling through every user. BCrypt runs at its minimum cost so the lookup, not the hash, dominates;
+// cacheSize=0 turns the recent-login cache off.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoginBenchmark {
+
+    @Param({ "100", "10000" })
+    int users;
+
+    @Param({ "0", "10000" })
+    int cacheSize;
+
+    ConfigurableApplicationContext context;
+    UserService userService;
+    String[] emails;
+    int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("login",
+                "schedease.security.bcrypt-strength=4",
+                "schedease.login-cache.max-size=" + cacheSize);
+        userService = context.getBean(UserService.class);
+        UserRepository userRepo = context.getBean(UserRepository.class);
+        String hash = context.getBean(PasswordEncoder.class).encode("secret");
+
+        emails = new String[users];
+        List<UserEntity> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            emails[i] = "user" + i + "@example.com";
+            UserEntity user = new UserEntity();
+            user.setUsername("user" + i);
+            user.setEmail(emails[i]);
+            user.setPassword(hash);
+            batch.add(user);
+            if (batch.size() == 1000 || i == users - 1) {
+                userRepo.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserEntity login() {
+        String email = emails[next++ % emails.length];
+        return userService.findByEmailAndPassword(email, "secret");
+    }
+}
@@ -0,0 +1,107 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.appdevg5.girlcode.GirlcodeApplication;
+import com.appdevg5.girlcode.service.InvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Read throughput against 1, 2, ... --nodes instances sharing one database and the database
+ * invalidation bus, with clients sent to an instance by userId as LoadTest.Load does. Each instance is
+ * kept small (a few Tomcat threads and connections, every statement delayed by --latency-ms) so that it,
+ * not this machine's CPU, is the bottleneck; throughput should then grow with the instance count.
+ * By default every request pages through the table, which needs a connection on its instance.
+ *
+ * mvn -P benchmarks -DskipTests test-compile exec:exec@scale-out [-Dload.args="nodes=4 clients=400"]
+ * Results are printed and written to target/scale-out.json.
+ */
+public class ScaleOutTest {
+
+    record Result(int nodes, long requests, long errors, double throughput, double speedup,
+            Map<String, Double> p50Millis, Map<String, Double> p99Millis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "nodes", "3", "clients", "200", "seconds", "10", "warmup", "3", "latency-ms", "5",
+                "users", "60", "page-share", "1.0", "threads", "8", "connections", "4",
+                "out", "target/scale-out.json"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int nodes = 1; nodes <= Integer.parseInt(options.get("nodes")); nodes++) {
+            Result result = run(nodes, options, results.isEmpty() ? 0 : results.get(0).throughput());
+            System.out.printf("%d node(s) %8.0f req/s  x%.2f  errors %-6d p50 %s  p99 %s%n", result.nodes(),
+                    result.throughput(), result.speedup(), result.errors(), result.p50Millis(), result.p99Millis());
+            results.add(result);
+        }
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(out.toFile(), Map.of("options", options, "results", results));
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    static Result run(int nodes, Map<String, String> options, double single) throws Exception {
+        String url = "jdbc:h2:mem:scale-" + nodes + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try {
+            List<String> bases = new ArrayList<>();
+            for (int n = 0; n < nodes; n++) {
+                ConfigurableApplicationContext context = node(n, url, options);
+                contexts.add(context);
+                bases.add("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api");
+            }
+            List<Long> userIds = LoadTest.seed(contexts.get(0), Integer.parseInt(options.get("users")));
+
+            LoadTest.Load load = new LoadTest.Load(bases, userIds, Double.parseDouble(options.get("page-share")));
+            int clients = Integer.parseInt(options.get("clients"));
+            load.drive(clients, Integer.parseInt(options.get("warmup")), false);
+            LoadTest.Result measured = load.drive(clients, Integer.parseInt(options.get("seconds")), true)
+                    .summarize(nodes + "-nodes");
+            return new Result(nodes, measured.requests(), measured.errors(), measured.throughput(),
+                    single == 0 ? 1.0 : measured.throughput() / single, measured.p50Millis(), measured.p99Millis());
+        } finally {
+            // the first node to close takes the shared in-memory database down, so nobody may still be polling it
+            for (ConfigurableApplicationContext context : contexts) {
+                if (context.getBean(InvalidationBus.class) instanceof AutoCloseable bus) {
+                    bus.close();
+                }
+            }
+            for (ConfigurableApplicationContext context : contexts) {
+                context.close();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext node(int n, String url, Map<String, String> options) {
+        long latencyMs = Long.parseLong(options.get("latency-ms"));
+        return new SpringApplicationBuilder(GirlcodeApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(LoadTest.slowStatements(latencyMs)))
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=false",
+                        "--server.tomcat.threads.max=" + options.get("threads"),
+                        "--spring.datasource.hikari.maximum-pool-size=" + options.get("connections"),
+                        "--schedease.cluster.bus=database",
+                        "--schedease.cluster.node-id=node" + n);
+    }
+}
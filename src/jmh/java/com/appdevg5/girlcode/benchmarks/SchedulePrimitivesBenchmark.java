@@ -0,0 +1,85 @@
+package com.appdevg5.girlcode.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.appdevg5.girlcode.dto.ConflictPair;
+import com.appdevg5.girlcode.schedule.ConflictIndex;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.appdevg5.girlcode.schedule.TimeSlots;
+
+// Schedule-string parsing and the two ways of finding conflicts among a user's rows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SchedulePrimitivesBenchmark {
+
+    static final String[] FORMATS = {
+            "MWF %d:00 AM - %d:00 AM",
+            "TTH %d:00 AM - %d:30 AM",
+            "Mon/Wed %d:00 AM - %d:00 AM\nSat 1:00 PM - 4:00 PM",
+            "TH %d:30 AM - %d:30 AM / S %d:00 AM - %d:00 AM",
+    };
+
+    @Param({ "50", "500" })
+    int rows;
+
+    String[] schedules;
+    TimeSlots[] slots;
+    ConflictIndex index;
+
+    @Setup
+    public void build() {
+        schedules = new String[rows];
+        slots = new TimeSlots[rows];
+        index = new ConflictIndex();
+        for (int i = 0; i < rows; i++) {
+            int start = 7 + i % 4;
+            schedules[i] = String.format(FORMATS[i % FORMATS.length], start, start + 1, start, start + 2);
+            slots[i] = ScheduleParser.encode(schedules[i]);
+            index.put(i, "CS" + (i % (rows / 2)), slots[i].meetings());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String schedule : schedules) {
+            blackhole.consume(ScheduleParser.encode(schedule));
+        }
+    }
+
+    // What the dashboard did per pair before /conflicts existed
+    @Benchmark
+    public int pairwiseMasks() {
+        int conflicts = 0;
+        for (int i = 0; i < slots.length; i++) {
+            for (int j = i + 1; j < slots.length; j++) {
+                if (slots[i].intersects(slots[j])) {
+                    conflicts++;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public List<ConflictPair> conflictIndex() {
+        return index.conflicts(null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.appdevg5.girlcode.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Turns on Spring's cache manager; the caches themselves are declared under spring.cache.* in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
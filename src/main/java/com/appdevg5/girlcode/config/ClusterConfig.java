@@ -0,0 +1,40 @@
+package com.appdevg5.girlcode.config;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.appdevg5.girlcode.repository.InvalidationRepository;
+import com.appdevg5.girlcode.service.DatabaseInvalidationBus;
+import com.appdevg5.girlcode.service.LocalInvalidationBus;
+
+// Picks the InvalidationBus from schedease.cluster.bus: local (default, one instance) or database
+@Configuration
+public class ClusterConfig {
+
+    // unset gives each start a fresh name, which is what the bus needs; set it to make logs readable
+    @Value("${schedease.cluster.node-id:}")
+    String nodeId;
+
+    @Bean
+    @ConditionalOnProperty(name = "schedease.cluster.bus", havingValue = "local", matchIfMissing = true)
+    LocalInvalidationBus localInvalidationBus() {
+        return new LocalInvalidationBus(nodeId());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "schedease.cluster.bus", havingValue = "database")
+    DatabaseInvalidationBus databaseInvalidationBus(InvalidationRepository repo,
+            @Value("${schedease.cluster.poll-interval:200ms}") Duration pollInterval,
+            @Value("${schedease.cluster.retention:5m}") Duration retention) {
+        return new DatabaseInvalidationBus(nodeId(), repo, pollInterval, retention);
+    }
+
+    private String nodeId() {
+        return nodeId.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : nodeId;
+    }
+}
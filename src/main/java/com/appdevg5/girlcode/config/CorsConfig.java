@@ -18,6 +18,9 @@ public class CorsConfig {
         config.addAllowedOriginPattern("*");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        // so the frontend can read the routing hints and echo the partition back
+        config.addExposedHeader(RoutingHintFilter.NODE_HEADER);
+        config.addExposedHeader(RoutingHintFilter.PARTITION_HEADER);
         
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
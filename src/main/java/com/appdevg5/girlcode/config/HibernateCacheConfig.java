@@ -0,0 +1,87 @@
+package com.appdevg5.girlcode.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Opt-in Hibernate second-level and query cache, held in bounded Caffeine caches. Entities marked
+ * with @Cache are served from memory by id, and DataRepository.findByUser_UserId from the query
+ * cache until a write to data_table invalidates it. Off unless schedease.hibernate-cache.enabled.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // region names used by @Cache(region = ...) and the query hint
+    public static final String USER_REGION = "user";
+    public static final String DATA_REGION = "data";
+    public static final String CATALOG_REGION = "catalogOffering";
+    // Hibernate's record of when each table last changed; must outlive every cached query result
+    static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${schedease.hibernate-cache.max-entries:10000}")
+    long maxEntries;
+
+    @Value("${schedease.hibernate-cache.ttl:10m}")
+    Duration ttl;
+
+    // Own manager per application context, so contexts in one JVM (tests) never share entries
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "schedease.hibernate-cache.enabled", havingValue = "true")
+    CacheManager hibernateCacheManager() {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("schedease:hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[] { USER_REGION, DATA_REGION, CATALOG_REGION,
+                DataRepository.USER_DATA_QUERY_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME }) {
+            manager.createCache(region, bounded());
+        }
+        manager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return manager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "schedease.hibernate-cache.enabled", havingValue = "true")
+    HibernatePropertiesCustomizer hibernateCacheCustomizer(@Qualifier("hibernateCacheManager") CacheManager manager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, manager);
+            // a region nobody created above is a mapping mistake, not something to cache unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Decided by the property alone: with hibernate-jcache on the classpath Hibernate would otherwise turn
+    // the cache on by itself, e.g. once spring.cache.type=jcache or any other JCache manager is around
+    @Bean
+    @ConditionalOnProperty(name = "schedease.hibernate-cache.enabled", havingValue = "false", matchIfMissing = true)
+    HibernatePropertiesCustomizer hibernateCacheOffCustomizer() {
+        return properties -> properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+    }
+
+    private CaffeineConfiguration<Object, Object> bounded() {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxEntries));
+        config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return config;
+    }
+}
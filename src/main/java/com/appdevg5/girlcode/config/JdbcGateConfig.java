@@ -0,0 +1,53 @@
+package com.appdevg5.girlcode.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Puts GatedDataSource in front of the connection pool; the gate defaults to the pool's own size
+@Configuration
+@ConditionalOnProperty(name = "schedease.jdbc.gate.enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcGateConfig {
+
+    // static so the post-processor is registered without initializing this configuration early
+    @Bean
+    static BeanPostProcessor jdbcGatePostProcessor(Environment env) {
+        int permits = env.getProperty("schedease.jdbc.gate.permits", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration timeout = DurationStyle.detectAndParse(env.getProperty("schedease.jdbc.gate.timeout", "60s"));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof GatedDataSource)) {
+                    return new GatedDataSource(dataSource, permits, timeout.toMillis());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder jdbcGateMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                GatedDataSource gate = dataSource.unwrap(GatedDataSource.class);
+                Gauge.builder("jdbc.gate.in-use", gate, GatedDataSource::getInUse).register(registry);
+                Gauge.builder("jdbc.gate.waiting", gate, GatedDataSource::getWaiting).register(registry);
+                Gauge.builder("jdbc.gate.limit", gate, GatedDataSource::getLimit).register(registry);
+            } catch (SQLException e) {
+                // not gated (e.g. replaced in a test); nothing to report
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.appdevg5.girlcode.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class PasswordConfig {
+
+    // Each +1 on the strength doubles the cost of hashing and verifying a password
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${schedease.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+}
@@ -0,0 +1,70 @@
+package com.appdevg5.girlcode.config;
+
+import java.io.IOException;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request made, as the http.server.requests.queries summary with
+ * the same method/uri tags as http.server.requests. Hibernate reports every statement it prepares to
+ * the inspector below; statements sent through JdbcTemplate (bulk inserts) are not counted.
+ */
+@Configuration
+public class QueryMetricsConfig {
+
+    // Statements prepared by Hibernate on the current thread since the request started
+    static final class QueryCounter implements StatementInspector {
+        static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = COUNT.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Bean
+    OncePerRequestFilter queryCountFilter(MeterRegistry registry) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                    FilterChain chain) throws ServletException, IOException {
+                int[] count = new int[1];
+                QueryCounter.COUNT.set(count);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    QueryCounter.COUNT.remove();
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    DistributionSummary.builder("http.server.requests.queries")
+                            .description("SQL statements per request")
+                            .tag("method", request.getMethod())
+                            .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                            .register(registry)
+                            .record(count[0]);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.appdevg5.girlcode.config;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.appdevg5.girlcode.service.InvalidationBus;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Routing hints for a load balancer in front of several instances. Every response names the instance
+ * that answered; a request about one user (?userId= or /api/users/{id}/...) also gets that user's
+ * partition, userId mod schedease.cluster.partitions. A balancer hashing on the partition (or on userId)
+ * keeps each user on one instance, where their cached lists are warm and write-behind edits are flushed
+ * by their own reads. Clients can echo the partition on requests that carry no userId, such as PUT /api/data/{id}.
+ */
+@Component
+public class RoutingHintFilter extends OncePerRequestFilter {
+
+    public static final String NODE_HEADER = "X-Schedease-Node";
+    public static final String PARTITION_HEADER = "X-Schedease-Partition";
+
+    private static final Pattern USER_PATH = Pattern.compile("/api/users/(\\d+)(/.*)?");
+
+    @Autowired
+    InvalidationBus bus;
+
+    @Value("${schedease.cluster.partitions:64}")
+    int partitions;
+
+    public static int partition(long userId, int partitions) {
+        return (int) Math.floorMod(userId, (long) partitions);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setHeader(NODE_HEADER, bus.nodeId());
+        Long userId = userId(request);
+        if (userId != null) {
+            response.setHeader(PARTITION_HEADER, String.valueOf(partition(userId, partitions)));
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String value = request.getParameter("userId");
+        if (value == null) {
+            Matcher path = USER_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+            value = path.matches() ? path.group(1) : null;
+        }
+        try {
+            return value == null ? null : Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
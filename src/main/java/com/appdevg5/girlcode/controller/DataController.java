@@ -1,24 +1,59 @@
 package com.appdevg5.girlcode.controller;
 
-import java.util.List;
-
-import org.springframework.beans.factory.annotation.Autowired;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.appdevg5.girlcode.dto.BulkImportResult;
+import com.appdevg5.girlcode.dto.ClearResult;
+import com.appdevg5.girlcode.dto.ConflictPair;
+import com.appdevg5.girlcode.dto.ImportJobStatus;
+import com.appdevg5.girlcode.dto.KeysetPage;
+import com.appdevg5.girlcode.dto.OccupancyCell;
+import com.appdevg5.girlcode.dto.SearchHit;
 import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataSummary;
+import com.appdevg5.girlcode.service.BulkImportAbortedException;
+import com.appdevg5.girlcode.service.BulkRowReader;
+import com.appdevg5.girlcode.service.ColumnarJson;
+import com.appdevg5.girlcode.service.ConflictService;
 import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ExportService;
+import com.appdevg5.girlcode.service.ImportService;
+import com.appdevg5.girlcode.service.OccupancyService;
+import com.appdevg5.girlcode.service.SearchService;
+import com.appdevg5.girlcode.service.SeatConflictException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/data")
@@ -28,27 +63,154 @@ public class DataController {
     @Autowired
     DataService dataService;
 
+    @Autowired
+    ConflictService conflictService;
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    SearchService searchService;
+
+    @Autowired
+    ImportService importService;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     // CREATE
     @PostMapping
     public DataEntity postData(@RequestBody DataEntity data) {
         return dataService.postData(data);
     }
 
-    // READ - Get all data for a specific user
-    @GetMapping
-    public List<DataEntity> getAllData(@RequestParam(required = false) Long userId) {
-        if (userId != null) {
-            return dataService.getDataByUserId(userId);
+    // BULK CREATE - JSON array body, read row by row
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult postDataBulk(@RequestParam Long userId, HttpServletRequest request) throws IOException {
+        return dataService.postDataBulk(userId, BulkRowReader.jsonArray(objectMapper, request.getInputStream()));
+    }
+
+    // BULK CREATE - NDJSON body, one row per line
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkImportResult postDataBulkNdjson(@RequestParam Long userId, HttpServletRequest request) throws IOException {
+        return dataService.postDataBulk(userId, BulkRowReader.ndjson(objectMapper, request.getInputStream()));
+    }
+
+    // IMPORT - pasted offering text, parsed and inserted in the background; answers 202 with the job
+    @PostMapping(value = "/import", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ImportJobStatus> importText(@RequestParam Long userId, HttpServletRequest request)
+            throws IOException {
+        return accepted(importService.start(userId, request.getInputStream()));
+    }
+
+    // IMPORT - the same text as an uploaded file (form field "file")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobStatus> importFile(@RequestParam Long userId, @RequestParam MultipartFile file)
+            throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return accepted(importService.start(userId, in));
         }
+    }
+
+    // IMPORT - progress of a job started above
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImport(@PathVariable String jobId) {
+        return importService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<ImportJobStatus> accepted(ImportJobStatus job) {
+        return ResponseEntity.accepted().location(URI.create("/api/data/import/" + job.jobId())).body(job);
+    }
+
+    // READ - Get all data
+    @GetMapping
+    public List<DataEntity> getAllData() {
         return dataService.getAllData();
     }
 
+    // READ - Get all data for a specific user, served from cache (see ListResponses)
+    @GetMapping(params = { "userId", "!limit" }, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getDataByUser(@RequestParam Long userId) {
+        return ListResponses.of(dataService.getDataSnapshot(userId), MediaType.APPLICATION_JSON);
+    }
+
+    // READ - the same list as one array per field, for Accept: application/vnd.schedease.columns+json
+    @GetMapping(params = { "userId", "!limit" }, produces = ColumnarJson.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> getDataColumnsByUser(@RequestParam Long userId) {
+        return ListResponses.of(dataService.getDataColumnsSnapshot(userId), ListResponses.COLUMNS);
+    }
+
+    // READ - one page of list-view rows; ?after=<last dataId>&limit=<n>
+    @GetMapping(params = "limit")
+    public KeysetPage<DataSummary> getDataPage(@RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "0") long after, @RequestParam int limit) {
+        return dataService.getDataPage(userId, after, limit);
+    }
+
+    // EXPORT - a user's rows streamed as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportData(@RequestParam Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format type = ExportService.Format.of(format);
+        StreamingResponseBody body = out -> exportService.exportData(userId, type, out);
+        return ExportResponses.of(type, "subjects-" + userId, body);
+    }
+
+    // SEARCH - best matches first; q matches word prefixes, the rest narrow by department, day and time
+    @GetMapping("/search")
+    public List<SearchHit> search(@RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) Long userId, @RequestParam(required = false) String dept,
+            @RequestParam(required = false) String day, @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before, @RequestParam(defaultValue = "20") int limit) {
+        return searchService.search(q, userId, dept, day, after, before, limit);
+    }
+
+    // OCCUPANCY - every room's classes through the week, across all users, for the heatmap
+    @GetMapping("/occupancy")
+    public List<OccupancyCell> getOccupancy() {
+        return occupancyService.getOccupancy();
+    }
+
+    // CONFLICTS - overlapping rows for a user, optionally only among the given ids
+    @GetMapping("/conflicts")
+    public List<ConflictPair> getConflicts(@RequestParam Long userId, @RequestParam(required = false) Set<Long> ids) {
+        return conflictService.getConflicts(userId, ids);
+    }
+
+    // CONFLICTS - check a candidate set sent in the body
+    @PostMapping("/conflicts/check")
+    public List<ConflictPair> checkConflicts(@RequestParam Long userId, @RequestBody Set<Long> ids) {
+        return conflictService.getConflicts(userId, ids);
+    }
+
     // UPDATE
     @PutMapping("/{id}")
     public DataEntity updateData(@PathVariable Long id, @RequestBody DataEntity newData) {
         return dataService.updateData(id, newData);
     }
 
+    // UPDATE - only the fields in the body, e.g. {"room": "NGE102"}; buffered when write-behind is on
+    @PatchMapping("/{id}")
+    public JsonNode patchData(@PathVariable Long id, @RequestBody ObjectNode fields) {
+        return dataService.patchData(id, fields);
+    }
+
+    // UPDATE - take or give back one seat without sending the whole row
+    @PostMapping("/{id}/enroll")
+    public DataEntity enroll(@PathVariable Long id) {
+        return dataService.enroll(id);
+    }
+
+    @PostMapping("/{id}/unenroll")
+    public DataEntity unenroll(@PathVariable Long id) {
+        return dataService.unenroll(id);
+    }
+
     // DELETE
     @DeleteMapping("/{id}")
     public String deleteData(@PathVariable Long id) {
@@ -57,10 +219,58 @@ public class DataController {
 
     // DELETE ALL - Clear all data for a specific user
     @DeleteMapping("/clear")
-    public Map<String, String> clearUserData(@RequestParam Long userId) {
-        String message = dataService.clearUserData(userId);
-        Map<String, String> response = new HashMap<>();
-        response.put("message", message);
+    public Map<String, Object> clearUserData(@RequestParam Long userId) {
+        ClearResult result = dataService.clearUserDataWithCounts(userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", result.message());
+        response.put("deleted", result.deleted());
+        response.put("preserved", result.preserved());
         return response;
     }
+
+    // 400 - a query parameter that can't be read, such as an unknown day or time
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleBadParameter(IllegalArgumentException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        return body;
+    }
+
+    // 400 - a bulk body that broke off part-way; the rows before the break were imported, see "result"
+    @ExceptionHandler(BulkImportAbortedException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleAbortedImport(BulkImportAbortedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        body.put("result", e.getResult());
+        return body;
+    }
+
+    // 404 - a user or subject id that doesn't exist
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> handleMissing(NoSuchElementException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        return body;
+    }
+
+    // 409 - the row changed since the client read it; reload and retry
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleStaleUpdate(OptimisticLockingFailureException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "This subject was changed by someone else. Reload it and try again.");
+        return body;
+    }
+
+    // 409 - enroll on a full section, or unenroll on an empty one
+    @ExceptionHandler(SeatConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleSeatConflict(SeatConflictException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        return body;
+    }
 }
@@ -0,0 +1,32 @@
+package com.appdevg5.girlcode.controller;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.appdevg5.girlcode.service.ExportService;
+
+// Download headers shared by the export endpoints
+final class ExportResponses {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(ExportService.Format format, String name,
+            StreamingResponseBody body) {
+        boolean csv = format == ExportService.Format.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + (csv ? ".csv" : ".ndjson"))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
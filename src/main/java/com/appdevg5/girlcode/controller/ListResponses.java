@@ -0,0 +1,29 @@
+package com.appdevg5.girlcode.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.appdevg5.girlcode.dto.ListSnapshot;
+import com.appdevg5.girlcode.service.ColumnarJson;
+
+// Headers shared by the cached per-user list endpoints. Spring answers 304 when If-None-Match still equals
+// the ETag, and no-cache makes browsers revalidate instead of reusing stale copies. The same URL has a plain
+// and a columnar body, so caches are told the body varies with Accept.
+final class ListResponses {
+
+    static final MediaType COLUMNS = MediaType.parseMediaType(ColumnarJson.MEDIA_TYPE_VALUE);
+
+    private ListResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(ListSnapshot snapshot, MediaType type) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(snapshot.etag())
+                .body(snapshot.json());
+    }
+}
@@ -1,10 +1,29 @@
 package com.appdevg5.girlcode.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.appdevg5.girlcode.dto.GenerateRequest;
+import com.appdevg5.girlcode.dto.KeysetPage;
+import com.appdevg5.girlcode.dto.ScheduleComparison;
 import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.repository.ScheduleSummary;
+import com.appdevg5.girlcode.schedule.ScheduleGenerator;
+import com.appdevg5.girlcode.service.ColumnarJson;
+import com.appdevg5.girlcode.service.ExportService;
+import com.appdevg5.girlcode.service.ScheduleCompareService;
+import com.appdevg5.girlcode.service.ScheduleGeneratorService;
 import com.appdevg5.girlcode.service.ScheduleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/schedule")
@@ -14,6 +33,18 @@ public class ScheduleController {
     @Autowired
     ScheduleService sserv;
 
+    @Autowired
+    ScheduleGeneratorService generatorService;
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    ScheduleCompareService compareService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     @GetMapping("/print")
     public String print() {
         return "Hello, Firstname Lastname";
@@ -27,13 +58,60 @@ public class ScheduleController {
 
     // Read (R)
     @GetMapping("/getAllSchedules")
-    public List<ScheduleEntity> getAllSchedules(@RequestParam(required = false) Long userId) {
-        if (userId != null) {
-            return sserv.getSchedulesByUserId(userId);
-        }
+    public List<ScheduleEntity> getAllSchedules() {
         return sserv.getAllSchedules();
     }
 
+    // Read by user, served from cache (see ListResponses)
+    @GetMapping(value = "/getAllSchedules", params = { "userId", "!limit" }, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getSchedulesByUser(@RequestParam Long userId) {
+        return ListResponses.of(sserv.getSchedulesSnapshot(userId), MediaType.APPLICATION_JSON);
+    }
+
+    // Read by user as columns, for Accept: application/vnd.schedease.columns+json
+    @GetMapping(value = "/getAllSchedules", params = { "userId", "!limit" }, produces = ColumnarJson.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> getSchedulesColumnsByUser(@RequestParam Long userId) {
+        return ListResponses.of(sserv.getSchedulesColumnsSnapshot(userId), ListResponses.COLUMNS);
+    }
+
+    // Read one page of list-view rows; ?after=<last scheduleId>&limit=<n>
+    @GetMapping(value = "/getAllSchedules", params = "limit")
+    public KeysetPage<ScheduleSummary> getSchedulePage(@RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        return sserv.getSchedulePage(userId, after, limit);
+    }
+
+    // Export - a user's schedules streamed as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSchedules(@RequestParam Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format type = ExportService.Format.of(format);
+        StreamingResponseBody body = out -> exportService.exportSchedules(userId, type, out);
+        return ExportResponses.of(type, "schedules-" + userId, body);
+    }
+
+    // Compare - metrics for each schedule and the subjects each pair differs by; ?ids=3,7,9
+    @GetMapping("/compare")
+    public ScheduleComparison compareSchedules(@RequestParam List<Integer> ids) {
+        return compareService.compare(ids);
+    }
+
+    // Generate - every conflict-free timetable for the requested subjects, one JSON object per line
+    @PostMapping(value = "/generate", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateSchedules(@RequestBody GenerateRequest request) {
+        ScheduleGenerator generator = generatorService.prepare(request);
+        StreamingResponseBody body = out -> generator.generate(result -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     //Update
     @PutMapping("/updateSchedule")
     public ScheduleEntity updateSchedule(@RequestParam int scheduleId, @RequestBody ScheduleEntity newScheduleDetails) {
@@ -45,4 +123,22 @@ public class ScheduleController {
     public String deleteSchedule(@PathVariable int scheduleId) {
         return sserv.deleteSchedule(scheduleId);
     }
+
+    // 400 - too many or no ids to compare
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleBadParameter(IllegalArgumentException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        return body;
+    }
+
+    // 404 - a schedule id that doesn't exist
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> handleMissing(NoSuchElementException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", e.getMessage());
+        return body;
+    }
 }
@@ -1,10 +1,13 @@
 package com.appdevg5.girlcode.controller;
 
 import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.service.ChangeFeedService;
 import com.appdevg5.girlcode.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +20,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ChangeFeedService changeFeed;
+
     @GetMapping
     public List<UserEntity> getAllUsers() {
         return userService.getAllUsers();
@@ -29,6 +35,15 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Server-Sent Events for the user's subject and schedule writes, as they commit
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable Long id) {
+        if (userService.getUserById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(changeFeed.subscribe(id));
+    }
+
     @PostMapping
     public UserEntity createUser(@RequestBody UserEntity user) {
         return userService.createUser(user);
@@ -0,0 +1,18 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+// Response of POST /api/data/bulk: one entry per submitted row, in submission order.
+public record BulkImportResult(Long userId, int inserted, int failed, List<RowResult> results) {
+
+    public record RowResult(int row, Long dataId, String status, String error) {
+
+        public static RowResult ok(int row, Long dataId) {
+            return new RowResult(row, dataId, "OK", null);
+        }
+
+        public static RowResult failed(int row, String error) {
+            return new RowResult(row, null, "FAILED", error);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+// One message on GET /api/users/{id}/events, sent as an SSE event named "data" or "schedule". type is
+// CREATED, UPDATED or DELETED with the ids it touched, or CLEARED (no ids) when the list changed wholesale.
+public record ChangeEvent(String type, List<Long> ids) {
+}
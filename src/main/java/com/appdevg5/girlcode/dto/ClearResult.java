@@ -0,0 +1,5 @@
+package com.appdevg5.girlcode.dto;
+
+// Outcome of clearing a user's subjects; preserved ones are still picked by a schedule.
+public record ClearResult(long deleted, long preserved, String message) {
+}
@@ -0,0 +1,9 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+import com.appdevg5.girlcode.schedule.Meeting;
+
+// Two rows whose meetings overlap; overlaps holds the shared time on each day.
+public record ConflictPair(Long firstId, Long secondId, List<Meeting> overlaps) {
+}
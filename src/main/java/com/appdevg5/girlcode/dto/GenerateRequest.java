@@ -0,0 +1,16 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/schedule/generate.
+ *
+ * @param subjects      subject codes that must all appear in each timetable
+ * @param limit         maximum timetables to return
+ * @param rank          NONE, FEWEST_GAPS or FEWEST_DAYS
+ * @param notBefore     optional earliest class start, e.g. "08:00"
+ * @param includeClosed also use closed or full sections
+ */
+public record GenerateRequest(Long userId, List<String> subjects, Integer limit, String rank, String notBefore,
+        Boolean includeClosed) {
+}
@@ -0,0 +1,12 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+import com.appdevg5.girlcode.dto.BulkImportResult.RowResult;
+
+// Response of POST /api/data/import and GET /api/data/import/{jobId}. state is QUEUED, RUNNING, DONE
+// or FAILED; bytesRead/totalBytes is how far parsing has got, and failures lists rejected rows
+// (the first few) with the same row numbers and messages as /api/data/bulk.
+public record ImportJobStatus(String jobId, Long userId, String state, long bytesRead, long totalBytes,
+        int parsed, int inserted, int failed, String error, List<RowResult> failures) {
+}
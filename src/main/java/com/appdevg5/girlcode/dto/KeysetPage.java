@@ -0,0 +1,7 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated list; pass nextAfter as ?after= to get the next page, null on the last one.
+public record KeysetPage<T>(List<T> items, Long nextAfter) {
+}
@@ -0,0 +1,5 @@
+package com.appdevg5.girlcode.dto;
+
+// A list response serialized once and kept with its ETag, so repeat reads skip both the database and Jackson.
+public record ListSnapshot(byte[] json, String etag) {
+}
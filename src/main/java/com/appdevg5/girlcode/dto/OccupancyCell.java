@@ -0,0 +1,7 @@
+package com.appdevg5.girlcode.dto;
+
+// One room over one stretch of a day (day 0 = Monday, start/end in minutes from midnight) in which the
+// classes meeting there did not change: how many, their seats taken and offered, and enrolled / totalSlots.
+public record OccupancyCell(String room, int day, int start, int end, int sections, long enrolled,
+        long totalSlots, Double fillRatio) {
+}
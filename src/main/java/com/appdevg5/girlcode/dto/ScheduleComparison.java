@@ -0,0 +1,16 @@
+package com.appdevg5.girlcode.dto;
+
+import java.util.List;
+
+// Response of GET /api/schedule/compare: one entry per requested schedule, in request order, then one
+// per pair (i < j) with the subjects the second schedule adds to and drops from the first.
+public record ScheduleComparison(List<Metrics> schedules, List<Diff> pairs) {
+
+    // Times in minutes from midnight; campusMinutes is first class to last class, summed over the days
+    public record Metrics(int scheduleId, String scheduleName, List<String> subjects, int totalUnits,
+            int campusMinutes, int gapMinutes, Integer earliestStart, Integer latestEnd, int daysOnCampus) {
+    }
+
+    public record Diff(int fromId, int toId, List<String> added, List<String> removed) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.appdevg5.girlcode.dto;
+
+// One search result; higher score ranks first.
+public record SearchHit(Long dataId, Long userId, String offeringDept, String subject, String subjectTitle,
+        String section, String schedule, String room, String isClosed, int score) {
+}
@@ -0,0 +1,154 @@
+package com.appdevg5.girlcode.entity;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import com.appdevg5.girlcode.config.HibernateCacheConfig;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// One section as the department offers it, shared by every user's DataEntity row that refers to it.
+// Rows never change once written: a user editing a shared section gets a private copy instead (see CatalogService).
+@Entity
+@Table(name = "catalog_offering",
+        uniqueConstraints = @UniqueConstraint(name = "uk_catalog_offering_key", columnNames = { "term", "subject", "section" }))
+@BatchSize(size = 100)
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = HibernateCacheConfig.CATALOG_REGION)
+public class CatalogOfferingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long offeringId;
+
+    // "" when the importer gave no term
+    @Column(name = "term", nullable = false)
+    private String term;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "section", nullable = false)
+    private String section;
+
+    @Column(name = "offering_dept")
+    private String offeringDept;
+
+    @Column(name = "subject_title")
+    private String subjectTitle;
+
+    @Column(name = "credited_units")
+    private Integer creditedUnits;
+
+    @Column(name = "schedule", columnDefinition = "TEXT")
+    private String schedule;
+
+    @Column(name = "slot_mask", length = 128)
+    private byte[] slotMask;
+
+    @Column(name = "room")
+    private String room;
+
+    // Same section details as the given row, ignoring the key columns
+    public boolean sameDetails(DataEntity data) {
+        return Objects.equals(offeringDept, data.getOfferingDept())
+                && Objects.equals(subjectTitle, data.getSubjectTitle())
+                && Objects.equals(creditedUnits, data.getCreditedUnits())
+                && Objects.equals(schedule, data.getSchedule())
+                && Objects.equals(room, data.getRoom())
+                && Arrays.equals(slotMask, data.getSlotMask());
+    }
+
+    public Long getOfferingId() {
+        return offeringId;
+    }
+
+    public void setOfferingId(Long offeringId) {
+        this.offeringId = offeringId;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public void setSection(String section) {
+        this.section = section;
+    }
+
+    public String getOfferingDept() {
+        return offeringDept;
+    }
+
+    public void setOfferingDept(String offeringDept) {
+        this.offeringDept = offeringDept;
+    }
+
+    public String getSubjectTitle() {
+        return subjectTitle;
+    }
+
+    public void setSubjectTitle(String subjectTitle) {
+        this.subjectTitle = subjectTitle;
+    }
+
+    public Integer getCreditedUnits() {
+        return creditedUnits;
+    }
+
+    public void setCreditedUnits(Integer creditedUnits) {
+        this.creditedUnits = creditedUnits;
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public byte[] getSlotMask() {
+        return slotMask;
+    }
+
+    public void setSlotMask(byte[] slotMask) {
+        this.slotMask = slotMask;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+}
@@ -1,15 +1,27 @@
 package com.appdevg5.girlcode.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import com.appdevg5.girlcode.config.HibernateCacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.DATA_REGION)
 @Table(name = "data_table")
 public class DataEntity {
 
@@ -17,10 +29,23 @@ public class DataEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long dataId;
 
-    @ManyToOne
+    // Loaded only if something reads past its id; JSON carries just userId, while clients
+    // still send {"user": {"userId": ...}} to set it
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private UserEntity user;
 
+    // Shared section details. While set, the detail columns below stay null and the getters read
+    // through to the catalog row; rows whose details differ from the catalog keep their own copy.
+    @ManyToOne
+    @JoinColumn(name = "offering_id")
+    @JsonIgnore
+    private CatalogOfferingEntity offering;
+
+    @Column(name = "term")
+    private String term;
+
     @Column(name = "number_column")
     private Integer number; 
     
@@ -42,6 +67,11 @@ public class DataEntity {
     @Column(name = "schedule", columnDefinition = "TEXT")
     private String schedule;
 
+    // Parsed form of schedule, see TimeSlots. Maintained by DataService, never by clients.
+    @Column(name = "slot_mask", length = 128)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private byte[] slotMask;
+
     @Column(name = "room")
     private String room;
 
@@ -57,6 +87,11 @@ public class DataEntity {
     @Column(name = "is_closed")
     private String isClosed;
 
+    // Bumped on every update; an update carrying an older version is rejected instead of overwriting
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     public Long getDataId() {
         return dataId;
     }
@@ -73,6 +108,34 @@ public class DataEntity {
         this.user = user;
     }
 
+    // Read from the foreign key; doesn't initialize a lazy user
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getUserId() {
+        return user != null ? user.getUserId() : null;
+    }
+
+    public CatalogOfferingEntity getOffering() {
+        return offering;
+    }
+
+    public void setOffering(CatalogOfferingEntity offering) {
+        this.offering = offering;
+    }
+
+    // Rows with the same offeringId are the same section, whoever imported them
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getOfferingId() {
+        return offering != null ? offering.getOfferingId() : null;
+    }
+
+    public String getTerm() {
+        return offering != null ? offering.getTerm() : term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
     public Integer getNumber() {
         return number;
     }
@@ -82,7 +145,7 @@ public class DataEntity {
     }
 
     public String getOfferingDept() {
-        return offeringDept;
+        return offering != null ? offering.getOfferingDept() : offeringDept;
     }
 
     public void setOfferingDept(String offeringDept) {
@@ -90,7 +153,7 @@ public class DataEntity {
     }
 
     public String getSubject() {
-        return subject;
+        return offering != null ? offering.getSubject() : subject;
     }
 
     public void setSubject(String subject) {
@@ -98,7 +161,7 @@ public class DataEntity {
     }
 
     public String getSubjectTitle() {
-        return subjectTitle;
+        return offering != null ? offering.getSubjectTitle() : subjectTitle;
     }
 
     public void setSubjectTitle(String subjectTitle) {
@@ -106,7 +169,7 @@ public class DataEntity {
     }
 
     public Integer getCreditedUnits() {
-        return creditedUnits;
+        return offering != null ? offering.getCreditedUnits() : creditedUnits;
     }
 
     public void setCreditedUnits(Integer creditedUnits) {
@@ -114,7 +177,7 @@ public class DataEntity {
     }
 
     public String getSection() {
-        return section;
+        return offering != null ? offering.getSection() : section;
     }
 
     public void setSection(String section) {
@@ -122,15 +185,23 @@ public class DataEntity {
     }
 
     public String getSchedule() {
-        return schedule;
+        return offering != null ? offering.getSchedule() : schedule;
     }
 
     public void setSchedule(String schedule) {
         this.schedule = schedule;
     }
 
+    public byte[] getSlotMask() {
+        return offering != null ? offering.getSlotMask() : slotMask;
+    }
+
+    public void setSlotMask(byte[] slotMask) {
+        this.slotMask = slotMask;
+    }
+
     public String getRoom() {
-        return room;
+        return offering != null ? offering.getRoom() : room;
     }
 
     public void setRoom(String room) {
@@ -168,4 +239,12 @@ public class DataEntity {
     public void setIsClosed(String isClosed) {
         this.isClosed = isClosed;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,93 @@
+package com.appdevg5.girlcode.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// One InvalidationBus message in the shared log read by DatabaseInvalidationBus; rows are purged once older
+// than schedease.cluster.retention (5m by default)
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(name = "ix_cache_invalidation_created", columnList = "created_at"))
+public class InvalidationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "topic", nullable = false, length = 16)
+    private String topic;
+
+    @Column(name = "change_type", nullable = false, length = 16)
+    private String type;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // comma-separated
+    @Column(name = "ids", columnDefinition = "TEXT")
+    private String ids;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getIds() {
+        return ids;
+    }
+
+    public void setIds(String ids) {
+        this.ids = ids;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
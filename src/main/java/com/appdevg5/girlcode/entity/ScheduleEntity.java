@@ -1,5 +1,14 @@
 package com.appdevg5.girlcode.entity;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 
 @Entity
@@ -10,17 +19,35 @@ public class ScheduleEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int scheduleId;
 
-    // Relationship: Many schedules belong to one user
-    @ManyToOne
+    // Relationship: Many schedules belong to one user. Lazy, and only its id is serialized (see DataEntity.user)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private UserEntity user;
 
     private String scheduleName;
 
     private boolean isSaved;
 
-    @Column(columnDefinition = "TEXT")
-    private String subjects; // JSON string of subject IDs
+    // Old JSON array of subject IDs; ScheduleService moves it into schedule_subject on startup
+    @Column(name = "subjects", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String legacySubjects;
+
+    // Relationship: a schedule picks many subjects (DataEntity rows)
+    @ManyToMany
+    @JoinTable(name = "schedule_subject",
+            joinColumns = @JoinColumn(name = "schedule_id"),
+            inverseJoinColumns = @JoinColumn(name = "data_id"),
+            indexes = @Index(name = "idx_schedule_subject_data", columnList = "data_id"))
+    @OrderBy("dataId")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Set<DataEntity> subjectList = new LinkedHashSet<>();
+
+    // IDs sent by the client, resolved into subjectList by ScheduleService
+    @Transient
+    @JsonIgnore
+    private List<Long> requestedSubjectIds;
 
     public ScheduleEntity() {
         super();
@@ -32,7 +59,7 @@ public class ScheduleEntity {
         this.user = user;
         this.scheduleName = scheduleName;
         this.isSaved = isSaved;
-        this.subjects = subjects;
+        setSubjects(subjects);
     }
 
     public int getScheduleId() {
@@ -51,6 +78,11 @@ public class ScheduleEntity {
         this.user = user;
     }
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getUserId() {
+        return user != null ? user.getUserId() : null;
+    }
+
     public String getScheduleName() {
         return scheduleName;
     }
@@ -67,11 +99,53 @@ public class ScheduleEntity {
         this.isSaved = isSaved;
     }
 
+    // Still exposed as a JSON array string of subject IDs for existing clients
     public String getSubjects() {
-        return subjects;
+        List<Long> ids = requestedSubjectIds != null ? requestedSubjectIds : getSubjectIds();
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
     }
 
     public void setSubjects(String subjects) {
-        this.subjects = subjects;
+        this.requestedSubjectIds = subjects == null ? null : parseSubjectIds(subjects);
+    }
+
+    @JsonIgnore
+    public List<Long> getSubjectIds() {
+        return subjectList.stream().map(DataEntity::getDataId).collect(Collectors.toList());
+    }
+
+    // The picked subjects themselves, so clients do not have to look them up
+    public Set<DataEntity> getSubjectList() {
+        return subjectList;
+    }
+
+    public void setSubjectList(Set<DataEntity> subjectList) {
+        this.subjectList = subjectList;
+        this.requestedSubjectIds = null;
+    }
+
+    @JsonIgnore
+    public List<Long> getRequestedSubjectIds() {
+        return requestedSubjectIds;
+    }
+
+    public String getLegacySubjects() {
+        return legacySubjects;
+    }
+
+    public void setLegacySubjects(String legacySubjects) {
+        this.legacySubjects = legacySubjects;
+    }
+
+    // Reads a JSON array of IDs such as [1,"2",3]; entries that are not numeric
+    // (e.g. client-side placeholder IDs) are skipped.
+    public static List<Long> parseSubjectIds(String json) {
+        List<Long> ids = new ArrayList<>();
+        for (String part : json.replaceAll("[\\[\\]\\s\"]", "").split(",")) {
+            if (part.matches("\\d{1,18}")) {
+                ids.add(Long.parseLong(part));
+            }
+        }
+        return ids;
     }
-}
\ No newline at end of file
+}
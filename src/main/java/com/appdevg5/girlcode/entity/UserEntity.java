@@ -1,13 +1,23 @@
 package com.appdevg5.girlcode.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.appdevg5.girlcode.config.HibernateCacheConfig;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "\"user\"")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
+@Table(name = "\"user\"", indexes = @Index(name = "uk_user_email", columnList = "email", unique = true))
 public class UserEntity {
 
     @Id
@@ -16,6 +26,8 @@ public class UserEntity {
 
     private String fullName;
     private String username;
+    // BCrypt hash; accepted on input but never serialized back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String email;
 
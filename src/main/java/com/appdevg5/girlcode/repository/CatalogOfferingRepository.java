@@ -0,0 +1,18 @@
+package com.appdevg5.girlcode.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.appdevg5.girlcode.entity.CatalogOfferingEntity;
+
+@Repository
+public interface CatalogOfferingRepository extends JpaRepository<CatalogOfferingEntity, Long> {
+    Optional<CatalogOfferingEntity> findByTermAndSubjectAndSection(String term, String subject, String section);
+
+    // Candidates for a batch of keys; callers match the exact (term, subject, section) in memory
+    List<CatalogOfferingEntity> findByTermInAndSubjectIn(Collection<String> terms, Collection<String> subjects);
+}
@@ -0,0 +1,90 @@
+package com.appdevg5.girlcode.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+
+/**
+ * Plain JDBC writes for data_table. DataEntity uses IDENTITY ids, which makes
+ * Hibernate insert one row per round trip, so bulk imports go through here instead.
+ */
+@Repository
+public class DataBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO data_table "
+            + "(user_id, offering_id, term, number_column, offering_dept, subject, subject_title, credited_units, section, "
+            + "schedule, slot_mask, room, total_slots, enrolled, assessed, is_closed) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // Inserts the rows as a single JDBC batch and returns the generated ids in row order.
+    // Must run inside the caller's transaction so a failed batch rolls back as a whole.
+    public List<Long> insertBatch(Long userId, List<DataEntity> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (DataEntity data : rows) {
+                    // rows linked to a catalog offering keep no copy of its details
+                    boolean own = data.getOffering() == null;
+                    ps.setLong(1, userId);
+                    if (own) {
+                        ps.setNull(2, Types.BIGINT);
+                    } else {
+                        ps.setLong(2, data.getOfferingId());
+                    }
+                    ps.setString(3, own ? data.getTerm() : null);
+                    setInt(ps, 4, data.getNumber());
+                    ps.setString(5, own ? data.getOfferingDept() : null);
+                    ps.setString(6, own ? data.getSubject() : null);
+                    ps.setString(7, own ? data.getSubjectTitle() : null);
+                    setInt(ps, 8, own ? data.getCreditedUnits() : null);
+                    ps.setString(9, own ? data.getSection() : null);
+                    ps.setString(10, own ? data.getSchedule() : null);
+                    ps.setBytes(11, own ? data.getSlotMask() : null);
+                    ps.setString(12, own ? data.getRoom() : null);
+                    setInt(ps, 13, data.getTotalSlots());
+                    setInt(ps, 14, data.getEnrolled());
+                    setInt(ps, 15, data.getAssessed());
+                    ps.setString(16, data.getIsClosed());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                // ids are matched to rows by position, so anything but one key per row can't be trusted;
+                // throwing here rolls the batch back
+                if (ids.size() != rows.size()) {
+                    throw new IncorrectResultSizeDataAccessException(
+                            "Expected one generated key per inserted row", rows.size(), ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    private static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
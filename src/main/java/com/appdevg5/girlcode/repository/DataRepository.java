@@ -1,15 +1,101 @@
 package com.appdevg5.girlcode.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 import com.appdevg5.girlcode.entity.DataEntity;
 import com.appdevg5.girlcode.entity.UserEntity;
 
 @Repository
 public interface DataRepository extends JpaRepository<DataEntity, Long> {
+    // Export: a user's rows in id order, run by ExportService with the configured fetch size
+    String EXPORT_QUERY = "SELECT d FROM DataEntity d LEFT JOIN FETCH d.offering WHERE d.user.userId = :userId "
+            + "ORDER BY d.dataId";
+    // Query cache region for findByUser_UserId (only used when the Hibernate cache is enabled)
+    String USER_DATA_QUERY_REGION = "dataByUser";
+
     List<DataEntity> findByUser(UserEntity user);
+    @Override
+    @EntityGraph(attributePaths = "offering")
+    List<DataEntity> findAll();
+
+    @EntityGraph(attributePaths = "offering")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = USER_DATA_QUERY_REGION) })
     List<DataEntity> findByUser_UserId(Long userId);
+
+    // Not from the query cache: for in-memory indexes that are built once and then follow DataChangedEvents
+    @EntityGraph(attributePaths = "offering")
+    List<DataEntity> findAllByUser_UserId(Long userId);
+
+    List<DataEntity> findTop500BySlotMaskIsNullAndOfferingIsNull();
+    List<DataEntity> findTop500ByOfferingIsNullAndDataIdGreaterThanOrderByDataId(Long after);
+    long countByUser_UserId(Long userId);
+
+    // Keyset page: rows with id above `after`, optionally for one user
+    @Query("SELECT d.dataId AS dataId, d.user.userId AS userId, COALESCE(o.offeringDept, d.offeringDept) AS offeringDept, "
+            + "COALESCE(o.subject, d.subject) AS subject, COALESCE(o.subjectTitle, d.subjectTitle) AS subjectTitle, "
+            + "COALESCE(o.creditedUnits, d.creditedUnits) AS creditedUnits, COALESCE(o.section, d.section) AS section, "
+            + "COALESCE(o.schedule, d.schedule) AS schedule, COALESCE(o.room, d.room) AS room, d.isClosed AS isClosed "
+            + "FROM DataEntity d LEFT JOIN d.offering o WHERE (:userId IS NULL OR d.user.userId = :userId) AND d.dataId > :after ORDER BY d.dataId")
+    List<DataSummary> findSummaries(Long userId, long after, Limit limit);
+
+    // Keyset page of what OccupancyService counts, optionally for one user
+    @Query("SELECT d.dataId AS dataId, d.user.userId AS userId, COALESCE(o.term, d.term) AS term, "
+            + "COALESCE(o.subject, d.subject) AS subject, COALESCE(o.section, d.section) AS section, "
+            + "COALESCE(o.room, d.room) AS room, COALESCE(o.slotMask, d.slotMask) AS slotMask, "
+            + "d.enrolled AS enrolled, d.totalSlots AS totalSlots "
+            + "FROM DataEntity d LEFT JOIN d.offering o WHERE (:userId IS NULL OR d.user.userId = :userId) AND d.dataId > :after ORDER BY d.dataId")
+    List<OccupancyRow> findOccupancyRows(Long userId, long after, Limit limit);
+
+    // Takes one seat if one is free, closing the section when it fills. isClosed is assigned first
+    // because MySQL evaluates later SET clauses against the already-updated enrolled.
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataEntity d SET "
+            + "d.isClosed = CASE WHEN COALESCE(d.enrolled, 0) + 1 >= d.totalSlots THEN 'true' ELSE d.isClosed END, "
+            + "d.enrolled = COALESCE(d.enrolled, 0) + 1, d.version = d.version + 1 "
+            + "WHERE d.dataId = :id AND COALESCE(d.enrolled, 0) < d.totalSlots")
+    int enroll(Long id);
+
+    // Gives one seat back, reopening the section if it was closed for being full
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataEntity d SET "
+            + "d.isClosed = CASE WHEN d.enrolled >= d.totalSlots THEN 'false' ELSE d.isClosed END, "
+            + "d.enrolled = d.enrolled - 1, d.version = d.version + 1 "
+            + "WHERE d.dataId = :id AND d.enrolled > 0")
+    int unenroll(Long id);
+
+    // Deletes a user's subjects that none of their own schedules has picked, in one statement
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DataEntity d WHERE d.user.userId = :userId AND NOT EXISTS "
+            + "(SELECT 1 FROM ScheduleEntity s JOIN s.subjectList picked WHERE s.user = d.user AND picked.dataId = d.dataId)")
+    int deleteUnscheduledByUserId(Long userId);
+
+    // Next ids above `after` that deleteUnscheduledByIds would remove, for chunked clears
+    @Query("SELECT d.dataId FROM DataEntity d WHERE d.user.userId = :userId AND d.dataId > :after AND NOT EXISTS "
+            + "(SELECT 1 FROM ScheduleEntity s JOIN s.subjectList picked WHERE s.user = d.user AND picked.dataId = d.dataId) "
+            + "ORDER BY d.dataId")
+    List<Long> findUnscheduledIds(Long userId, Long after, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DataEntity d WHERE d.dataId IN :ids AND NOT EXISTS "
+            + "(SELECT 1 FROM ScheduleEntity s JOIN s.subjectList picked WHERE s.user = d.user AND picked.dataId = d.dataId)")
+    int deleteUnscheduledByIds(Collection<Long> ids);
 }
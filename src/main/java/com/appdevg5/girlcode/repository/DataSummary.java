@@ -0,0 +1,15 @@
+package com.appdevg5.girlcode.repository;
+
+// List-view columns of DataEntity, selected directly without loading the entity or its user.
+public interface DataSummary {
+    Long getDataId();
+    Long getUserId();
+    String getOfferingDept();
+    String getSubject();
+    String getSubjectTitle();
+    Integer getCreditedUnits();
+    String getSection();
+    String getSchedule();
+    String getRoom();
+    String getIsClosed();
+}
@@ -0,0 +1,27 @@
+package com.appdevg5.girlcode.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.appdevg5.girlcode.entity.InvalidationEntity;
+
+@Repository
+public interface InvalidationRepository extends JpaRepository<InvalidationEntity, Long> {
+
+    List<InvalidationEntity> findTop500ByIdGreaterThanOrderById(long after);
+
+    @Query("select coalesce(max(i.id), 0) from InvalidationEntity i")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from InvalidationEntity i where i.createdAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
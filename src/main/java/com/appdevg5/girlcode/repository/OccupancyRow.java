@@ -0,0 +1,14 @@
+package com.appdevg5.girlcode.repository;
+
+// What the occupancy grid needs of a DataEntity row, with catalog details already resolved.
+public interface OccupancyRow {
+    Long getDataId();
+    Long getUserId();
+    String getTerm();
+    String getSubject();
+    String getSection();
+    String getRoom();
+    byte[] getSlotMask();
+    Integer getEnrolled();
+    Integer getTotalSlots();
+}
@@ -1,16 +1,69 @@
 package com.appdevg5.girlcode.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import com.appdevg5.girlcode.entity.ScheduleEntity;
 import com.appdevg5.girlcode.entity.UserEntity;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<ScheduleEntity, Integer> {
 
+    // Export: a user's schedules joined to their picked subjects, in schedule then subject order; run by
+    // ExportService with the configured fetch size
+    String EXPORT_QUERY = "SELECT new com.appdevg5.girlcode.repository.ScheduleSubjectRow(s.scheduleId, "
+            + "s.scheduleName, s.isSaved, d.dataId, COALESCE(o.subject, d.subject), COALESCE(o.section, d.section), "
+            + "COALESCE(o.schedule, d.schedule), COALESCE(o.room, d.room)) "
+            + "FROM ScheduleEntity s LEFT JOIN s.subjectList d LEFT JOIN d.offering o WHERE s.user.userId = :userId "
+            + "ORDER BY s.scheduleId, d.dataId";
+
     // public ScheduleEntity findByScheduleName(String schedule_name);
     List<ScheduleEntity> findByUser(UserEntity user);
+
+    // Subjects and their catalog offerings come back in the same query instead of one select per schedule
+    @EntityGraph(attributePaths = { "subjectList", "subjectList.offering" })
     List<ScheduleEntity> findByUser_UserId(Long userId);
+
+    @Override
+    @EntityGraph(attributePaths = { "subjectList", "subjectList.offering" })
+    List<ScheduleEntity> findAll();
+
+    @EntityGraph(attributePaths = { "subjectList", "subjectList.offering" })
+    List<ScheduleEntity> findByScheduleIdIn(Collection<Integer> scheduleIds);
+
+    List<ScheduleEntity> findTop200ByLegacySubjectsIsNotNull();
+
+    // Keyset page: schedules with id above `after`, optionally for one user
+    @Query("SELECT s.scheduleId AS scheduleId, s.user.userId AS userId, s.scheduleName AS scheduleName, "
+            + "s.isSaved AS isSaved FROM ScheduleEntity s "
+            + "WHERE (:userId IS NULL OR s.user.userId = :userId) AND s.scheduleId > :after ORDER BY s.scheduleId")
+    List<ScheduleSummary> findSummaries(Long userId, int after, Limit limit);
+
+    // Removes a subject from every schedule that picked it, before the subject is deleted
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM schedule_subject WHERE data_id = :dataId", nativeQuery = true)
+    int unlinkSubject(Long dataId);
+
+    // Drops other users' picks of a user's subjects, which don't keep those subjects from being cleared
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM schedule_subject WHERE data_id IN (SELECT data_id FROM data_table WHERE user_id = :userId) "
+            + "AND schedule_id IN (SELECT schedule_id FROM schedule WHERE user_id <> :userId)", nativeQuery = true)
+    int unlinkForeignPicks(Long userId);
+
+    // The same for some of the user's subjects
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM schedule_subject WHERE data_id IN :dataIds "
+            + "AND schedule_id IN (SELECT schedule_id FROM schedule WHERE user_id <> :userId)", nativeQuery = true)
+    int unlinkForeignPicks(Long userId, Collection<Long> dataIds);
 }
@@ -0,0 +1,6 @@
+package com.appdevg5.girlcode.repository;
+
+// One (schedule, picked subject) pair; the subject columns are null for a schedule with no subjects.
+public record ScheduleSubjectRow(Integer scheduleId, String scheduleName, boolean isSaved, Long dataId,
+        String subject, String section, String schedule, String room) {
+}
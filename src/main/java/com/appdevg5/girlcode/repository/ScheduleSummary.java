@@ -0,0 +1,9 @@
+package com.appdevg5.girlcode.repository;
+
+// List-view columns of ScheduleEntity, without its user or subjects.
+public interface ScheduleSummary {
+    Integer getScheduleId();
+    Long getUserId();
+    String getScheduleName();
+    boolean getIsSaved();
+}
@@ -1,9 +1,12 @@
 package com.appdevg5.girlcode.repository;
 
+import java.util.Optional;
+
 import com.appdevg5.girlcode.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
-}
\ No newline at end of file
+    Optional<UserEntity> findByEmail(String email);
+}
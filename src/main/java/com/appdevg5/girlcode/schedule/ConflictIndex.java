@@ -0,0 +1,99 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import com.appdevg5.girlcode.dto.ConflictPair;
+
+/**
+ * Interval index over one user's rows: a start-ordered set of meetings per day,
+ * updated in O(log n) per meeting. Conflicts are found with a sweep line per day,
+ * so the cost is O(n log n + k) for k overlaps instead of comparing every pair.
+ * Rows with the same subject code are sections of one course and never conflict.
+ */
+public class ConflictIndex {
+
+    private record Interval(long id, int start, int end) {
+    }
+
+    private record Entry(String subject, List<Meeting> meetings) {
+    }
+
+    private static final Comparator<Interval> BY_START = Comparator.comparingInt(Interval::start)
+            .thenComparingInt(Interval::end)
+            .thenComparingLong(Interval::id);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final List<TreeSet<Interval>> days = new ArrayList<>();
+
+    public ConflictIndex() {
+        for (int day = 0; day < TimeSlots.DAYS; day++) {
+            days.add(new TreeSet<>(BY_START));
+        }
+    }
+
+    public synchronized void put(long id, String subject, List<Meeting> meetings) {
+        remove(id);
+        entries.put(id, new Entry(normalize(subject), meetings));
+        for (Meeting m : meetings) {
+            days.get(m.day()).add(new Interval(id, m.start(), m.end()));
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (Meeting m : old.meetings()) {
+            days.get(m.day()).remove(new Interval(id, m.start(), m.end()));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // All conflicting pairs; pass null for every row or a set of ids to check just those.
+    public synchronized List<ConflictPair> conflicts(Collection<Long> candidates) {
+        Map<List<Long>, List<Meeting>> pairs = new LinkedHashMap<>();
+        for (int day = 0; day < TimeSlots.DAYS; day++) {
+            List<Interval> active = new ArrayList<>();
+            for (Interval current : days.get(day)) {
+                if (candidates != null && !candidates.contains(current.id())) {
+                    continue;
+                }
+                // drop meetings that ended before this one starts; the rest overlap it
+                active.removeIf(open -> open.end() <= current.start());
+                for (Interval open : active) {
+                    if (open.id() == current.id() || sameSubject(open.id(), current.id())) {
+                        continue;
+                    }
+                    List<Long> key = List.of(Math.min(open.id(), current.id()), Math.max(open.id(), current.id()));
+                    pairs.computeIfAbsent(key, k -> new ArrayList<>())
+                            .add(new Meeting(day, current.start(), Math.min(open.end(), current.end())));
+                }
+                active.add(current);
+            }
+        }
+        List<ConflictPair> result = new ArrayList<>(pairs.size());
+        pairs.forEach((key, overlaps) -> result.add(new ConflictPair(key.get(0), key.get(1), overlaps)));
+        return result;
+    }
+
+    private boolean sameSubject(long a, long b) {
+        String subject = entries.get(a).subject();
+        return subject != null && Objects.equals(subject, entries.get(b).subject());
+    }
+
+    private static String normalize(String subject) {
+        return subject == null || subject.isBlank() ? null : subject.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,33 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.List;
+
+// One weekly class meeting: day index (0 = Monday .. 6 = Sunday) and minutes from midnight.
+public record Meeting(int day, int start, int end) {
+
+    public static final String[] DAY_CODES = { "M", "T", "W", "TH", "F", "S", "SU" };
+
+    public String dayCode() {
+        return DAY_CODES[day];
+    }
+
+    public int minutes() {
+        return end - start;
+    }
+
+    public boolean overlaps(Meeting other) {
+        return day == other.day && start < other.end && other.start < end;
+    }
+
+    // Exact check behind a TimeSlots.intersects hit; back-to-back meetings don't overlap
+    public static boolean anyOverlap(List<Meeting> a, List<Meeting> b) {
+        for (Meeting x : a) {
+            for (Meeting y : b) {
+                if (x.overlaps(y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
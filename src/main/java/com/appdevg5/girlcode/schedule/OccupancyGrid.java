@@ -0,0 +1,140 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Room occupancy per 10-minute slot of the week, kept as running totals: each write adds or subtracts
+ * one row's slots, so reading the grid never rescans the rows. Rows of the same section (as imported
+ * by several users) count once, with the seats of the newest of them. cells() merges consecutive
+ * slots with equal totals, so a room with one class a day yields one cell per meeting.
+ */
+public class OccupancyGrid {
+
+    // section: rows sharing it are one class. room: null when unknown, and then the row is not placed.
+    public record Row(long id, long userId, String section, String room, TimeSlots slots, int enrolled,
+            int totalSlots) {
+    }
+
+    // day: 0 = Monday. start/end: minutes from midnight.
+    public record Cell(String room, int day, int start, int end, int sections, long enrolled, long totalSlots) {
+    }
+
+    private static final class RoomCounts {
+        final int[] sections = new int[TimeSlots.DAYS * TimeSlots.SLOTS_PER_DAY];
+        final long[] enrolled = new long[sections.length];
+        final long[] totalSlots = new long[sections.length];
+        int rows;
+
+        boolean sameAsPrevious(int i) {
+            return sections[i] == sections[i - 1] && enrolled[i] == enrolled[i - 1] && totalSlots[i] == totalSlots[i - 1];
+        }
+    }
+
+    private final Map<Long, Row> rows = new HashMap<>();
+    private final Map<Long, Set<Long>> byUser = new HashMap<>();
+    // section -> its rows by id; the last (newest) one is the one counted
+    private final Map<String, TreeMap<Long, Row>> sections = new HashMap<>();
+    private final Map<String, RoomCounts> rooms = new TreeMap<>();
+
+    public synchronized void put(Row row) {
+        removeLocked(row.id());
+        rows.put(row.id(), row);
+        byUser.computeIfAbsent(row.userId(), id -> new HashSet<>()).add(row.id());
+        TreeMap<Long, Row> same = sections.computeIfAbsent(row.section(), key -> new TreeMap<>());
+        Row before = same.isEmpty() ? null : same.lastEntry().getValue();
+        same.put(row.id(), row);
+        recount(before, same.lastEntry().getValue());
+    }
+
+    public synchronized void remove(long id) {
+        removeLocked(id);
+    }
+
+    public synchronized void removeUser(long userId) {
+        Set<Long> ids = byUser.get(userId);
+        if (ids != null) {
+            new ArrayList<>(ids).forEach(this::removeLocked);
+        }
+    }
+
+    public synchronized List<Cell> cells() {
+        List<Cell> cells = new ArrayList<>();
+        rooms.forEach((room, counts) -> {
+            for (int day = 0; day < TimeSlots.DAYS; day++) {
+                int from = day * TimeSlots.SLOTS_PER_DAY;
+                int to = from + TimeSlots.SLOTS_PER_DAY;
+                for (int i = from; i < to; i++) {
+                    if (counts.sections[i] == 0) {
+                        continue;
+                    }
+                    int start = i;
+                    while (i + 1 < to && counts.sameAsPrevious(i + 1)) {
+                        i++;
+                    }
+                    cells.add(new Cell(room, day, (start - from) * TimeSlots.SLOT_MINUTES,
+                            (i + 1 - from) * TimeSlots.SLOT_MINUTES, counts.sections[start], counts.enrolled[start],
+                            counts.totalSlots[start]));
+                }
+            }
+        });
+        return cells;
+    }
+
+    private void removeLocked(long id) {
+        Row old = rows.remove(id);
+        if (old == null) {
+            return;
+        }
+        Set<Long> ids = byUser.get(old.userId());
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            byUser.remove(old.userId());
+        }
+        TreeMap<Long, Row> same = sections.get(old.section());
+        Row before = same.lastEntry().getValue();
+        same.remove(id);
+        if (same.isEmpty()) {
+            sections.remove(old.section());
+        }
+        recount(before, same.isEmpty() ? null : same.lastEntry().getValue());
+    }
+
+    // The counted row of a section changed from before to after (either may be null)
+    private void recount(Row before, Row after) {
+        if (before == after) {
+            return;
+        }
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+
+    private void add(Row row, int sign) {
+        if (row.room() == null) {
+            return;
+        }
+        RoomCounts counts = rooms.computeIfAbsent(row.room(), room -> new RoomCounts());
+        for (Meeting meeting : row.slots().meetings()) {
+            int from = meeting.day() * TimeSlots.SLOTS_PER_DAY + meeting.start() / TimeSlots.SLOT_MINUTES;
+            int to = meeting.day() * TimeSlots.SLOTS_PER_DAY + meeting.end() / TimeSlots.SLOT_MINUTES;
+            for (int i = from; i < to; i++) {
+                counts.sections[i] += sign;
+                counts.enrolled[i] += sign * row.enrolled();
+                counts.totalSlots[i] += sign * row.totalSlots();
+            }
+        }
+        counts.rows += sign;
+        if (counts.rows == 0) {
+            rooms.remove(row.room());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates conflict-free timetables that take one section from every course.
+ *
+ * Backtracking with forward checking: courses are ordered most-constrained first and
+ * every course keeps a bitset of its sections that still fit. Picking a section clears
+ * the sections it clashes with in all later courses (precomputed: slot masks rule most
+ * pairs out, and a shared slot is confirmed on the exact meetings),
+ * and a branch is dropped as soon as some course has nothing left. Ranked searches also
+ * prune branches that cannot beat the worst timetable kept so far. The first course's
+ * sections are explored in parallel on the common fork-join pool.
+ */
+public final class ScheduleGenerator {
+
+    public enum Rank {
+        // stream timetables as they are found
+        NONE,
+        // fewest idle minutes between classes, then fewest days on campus
+        FEWEST_GAPS,
+        // fewest days on campus, then fewest idle minutes
+        FEWEST_DAYS
+    }
+
+    public record Option(long id, TimeSlots slots, List<Meeting> meetings) {
+
+        public static Option of(long id, List<Meeting> meetings) {
+            return new Option(id, TimeSlots.of(meetings), meetings);
+        }
+
+        // The mask rounds outwards, so back-to-back sections can share a slot without clashing
+        boolean clashesWith(Option other) {
+            return slots.intersects(other.slots) && Meeting.anyOverlap(meetings, other.meetings);
+        }
+    }
+
+    public record Result(List<Long> ids, int gapMinutes, int days, int earliestStart, int latestEnd) {
+
+        static Result of(long[] ids, TimeSlots slots) {
+            List<Long> list = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                list.add(id);
+            }
+            return new Result(list, slots.gapMinutes(), slots.dayCount(), slots.earliestStart(), slots.latestEnd());
+        }
+    }
+
+    private final List<List<Option>> courses;
+    private final Rank rank;
+    private final int limit;
+    private final long maxCandidates;
+    private final Comparator<Result> order;
+    // longs needed for one course's section bitset
+    private final int width;
+    // clashes[c][i][c2]: sections of course c2 that overlap section i of course c (c2 > c)
+    private final long[][][][] clashes;
+    // remainingSlots[c]: most slots the courses from index c onwards can occupy
+    private final int[] remainingSlots;
+
+    private final AtomicLong candidates = new AtomicLong();
+    private final AtomicLong emitted = new AtomicLong();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /**
+     * @param courses       the sections to choose from, one list per course
+     * @param limit         maximum number of timetables to return
+     * @param maxCandidates upper bound on complete timetables examined when ranking
+     */
+    public ScheduleGenerator(List<List<Option>> courses, Rank rank, int limit, long maxCandidates) {
+        this.courses = new ArrayList<>(courses);
+        this.courses.sort(Comparator.comparingInt(List::size));
+        this.rank = rank;
+        this.limit = limit;
+        this.maxCandidates = maxCandidates;
+        this.order = order(rank);
+
+        int n = this.courses.size();
+        int widest = 1;
+        for (List<Option> sections : this.courses) {
+            widest = Math.max(widest, (sections.size() + 63) / 64);
+        }
+        this.width = widest;
+
+        this.clashes = new long[n][][][];
+        this.remainingSlots = new int[n + 1];
+        for (int c = n - 1; c >= 0; c--) {
+            List<Option> sections = this.courses.get(c);
+            clashes[c] = new long[sections.size()][n][width];
+            int most = 0;
+            for (int i = 0; i < sections.size(); i++) {
+                Option option = sections.get(i);
+                most = Math.max(most, option.slots().slotCount());
+                for (int c2 = c + 1; c2 < n; c2++) {
+                    List<Option> later = this.courses.get(c2);
+                    for (int j = 0; j < later.size(); j++) {
+                        if (option.clashesWith(later.get(j))) {
+                            clashes[c][i][c2][j >>> 6] |= 1L << j;
+                        }
+                    }
+                }
+            }
+            remainingSlots[c] = remainingSlots[c + 1] + most;
+        }
+    }
+
+    /**
+     * Runs the search. Unranked results reach the sink as soon as they are found
+     * (possibly from several threads at once); ranked results are delivered best
+     * first once the search finishes.
+     */
+    public void generate(Consumer<Result> sink) {
+        if (courses.isEmpty() || limit <= 0 || courses.get(0).isEmpty()) {
+            return;
+        }
+        Consumer<Result> target = rank == Rank.NONE ? synchronizedSink(sink) : null;
+        List<Branch> branches = new ArrayList<>();
+        for (int i = 0; i < courses.get(0).size(); i++) {
+            branches.add(new Branch(i, target));
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(branches);
+            }
+        });
+
+        if (rank != Rank.NONE) {
+            PriorityQueue<Result> best = new PriorityQueue<>(order.reversed());
+            for (Branch branch : branches) {
+                for (Result r : branch.top) {
+                    offer(best, r);
+                }
+            }
+            List<Result> sorted = new ArrayList<>(best);
+            sorted.sort(order);
+            sorted.forEach(sink);
+        }
+    }
+
+    public long candidatesExamined() {
+        return candidates.get();
+    }
+
+    private Consumer<Result> synchronizedSink(Consumer<Result> sink) {
+        return result -> {
+            synchronized (this) {
+                if (emitted.get() < limit) {
+                    emitted.incrementAndGet();
+                    sink.accept(result);
+                }
+                if (emitted.get() >= limit) {
+                    stopped.set(true);
+                }
+            }
+        };
+    }
+
+    private static Comparator<Result> order(Rank rank) {
+        Comparator<Result> byGaps = Comparator.comparingInt(Result::gapMinutes);
+        Comparator<Result> byDays = Comparator.comparingInt(Result::days);
+        Comparator<Result> primary = rank == Rank.FEWEST_DAYS ? byDays.thenComparing(byGaps) : byGaps.thenComparing(byDays);
+        return primary.thenComparing(Result::ids, ScheduleGenerator::compareIds);
+    }
+
+    private static int compareIds(List<Long> a, List<Long> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int c = Long.compare(a.get(i), b.get(i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    // Keeps the queue at the best `limit` results; its head is the worst one kept.
+    private void offer(PriorityQueue<Result> top, Result result) {
+        if (top.size() < limit) {
+            top.add(result);
+        } else if (order.compare(result, top.peek()) < 0) {
+            top.poll();
+            top.add(result);
+        }
+    }
+
+    private final class Branch extends RecursiveAction {
+
+        private final int first;
+        private final Consumer<Result> sink;
+        private final PriorityQueue<Result> top = new PriorityQueue<>(order.reversed());
+        private final int n = courses.size();
+        private final long[] chosen = new long[n];
+        // masks[d]: slots used by the first d picks; alive[d][c]: sections of course c still open
+        private final long[][] masks = new long[n + 1][TimeSlots.WORDS];
+        private final long[][][] alive = new long[n + 1][n][width];
+
+        Branch(int first, Consumer<Result> sink) {
+            this.first = first;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            for (int c = 1; c < n; c++) {
+                int size = courses.get(c).size();
+                for (int j = 0; j < size; j++) {
+                    alive[0][c][j >>> 6] |= 1L << j;
+                }
+            }
+            if (pick(0, first)) {
+                search(1);
+            }
+        }
+
+        private void search(int depth) {
+            if (stopped.get()) {
+                return;
+            }
+            if (depth == n) {
+                if (rank == Rank.NONE) {
+                    candidates.incrementAndGet();
+                    sink.accept(Result.of(chosen.clone(), new TimeSlots(masks[depth].clone())));
+                } else if (candidates.incrementAndGet() > maxCandidates) {
+                    stopped.set(true);
+                } else {
+                    consider(masks[depth]);
+                }
+                return;
+            }
+            long[] open = alive[depth][depth];
+            for (int w = 0; w < width; w++) {
+                long bits = open[w];
+                while (bits != 0) {
+                    int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (pick(depth, i)) {
+                        search(depth + 1);
+                    }
+                }
+            }
+        }
+
+        // Takes section i of course `depth`: extends the mask, narrows the later courses,
+        // and reports whether the branch is still worth exploring.
+        private boolean pick(int depth, int i) {
+            Option option = courses.get(depth).get(i);
+            chosen[depth] = option.id();
+            long[] current = masks[depth];
+            long[] next = masks[depth + 1];
+            long[] words = option.slots().words();
+            for (int k = 0; k < TimeSlots.WORDS; k++) {
+                next[k] = current[k] | words[k];
+            }
+            long[][] clash = clashes[depth][i];
+            for (int c = depth + 1; c < n; c++) {
+                long any = 0;
+                for (int w = 0; w < width; w++) {
+                    long left = alive[depth][c][w] & ~clash[c][w];
+                    alive[depth + 1][c][w] = left;
+                    any |= left;
+                }
+                if (any == 0) {
+                    return false;
+                }
+            }
+            return canBeatWorst(depth + 1);
+        }
+
+        // Bounds for ranked searches once `limit` results are kept. Days on campus only
+        // grow as sections are added. Idle time is the daily span (which only grows) minus
+        // the slots in use, and the remaining courses can add at most remainingSlots[depth]
+        // used slots, so idle time can shrink by at most that much.
+        private boolean canBeatWorst(int depth) {
+            if (rank == Rank.NONE || top.size() < limit) {
+                return true;
+            }
+            Result worst = top.peek();
+            if (rank == Rank.FEWEST_DAYS) {
+                return TimeSlots.dayCount(masks[depth]) <= worst.days();
+            }
+            return TimeSlots.gapMinutes(masks[depth]) - remainingSlots[depth] * TimeSlots.SLOT_MINUTES <= worst.gapMinutes();
+        }
+
+        // Scores the timetable from its words and only builds a Result when it would make the cut.
+        private void consider(long[] mask) {
+            int gaps = TimeSlots.gapMinutes(mask);
+            int days = TimeSlots.dayCount(mask);
+            if (top.size() >= limit) {
+                Result worst = top.peek();
+                int byGaps = Integer.compare(gaps, worst.gapMinutes());
+                int byDays = Integer.compare(days, worst.days());
+                int primary = rank == Rank.FEWEST_DAYS ? byDays : byGaps;
+                int secondary = rank == Rank.FEWEST_DAYS ? byGaps : byDays;
+                if (primary > 0 || (primary == 0 && secondary > 0)) {
+                    return;
+                }
+            }
+            offer(top, Result.of(chosen.clone(), new TimeSlots(mask.clone())));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-form schedule strings stored in DataEntity.schedule, e.g.
+ * "MWF 8:00 AM - 9:30 AM / TH 1:00 PM - 4:00 PM". Parts are separated by "/" or
+ * new lines; anything after the time range (usually the room) is ignored.
+ * Parts that cannot be read are skipped, matching the frontend parser.
+ */
+public final class ScheduleParser {
+
+    private static final Pattern PART = Pattern.compile(
+            "^\\s*([A-Za-z][A-Za-z\\s]*?)\\s*(\\d{1,2}):(\\d{2})\\s*([AP])\\.?M\\.?\\s*-\\s*(\\d{1,2}):(\\d{2})\\s*([AP])\\.?M\\.?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TIME = Pattern.compile(
+            "^\\s*(\\d{1,2})(?::(\\d{2}))?\\s*(?:([AP])\\.?M\\.?)?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private ScheduleParser() {
+    }
+
+    public static List<Meeting> parse(String schedule) {
+        List<Meeting> meetings = new ArrayList<>();
+        if (schedule == null || schedule.isBlank()) {
+            return meetings;
+        }
+        for (String part : schedule.split("[/\\r\\n]+")) {
+            Matcher m = PART.matcher(part.replace('\u00A0', ' '));
+            if (!m.find()) {
+                continue;
+            }
+            int start = toMinutes(m.group(2), m.group(3), m.group(4));
+            int end = toMinutes(m.group(5), m.group(6), m.group(7));
+            if (end <= start) {
+                continue;
+            }
+            for (int day : parseDays(m.group(1))) {
+                meetings.add(new Meeting(day, start, end));
+            }
+        }
+        return meetings;
+    }
+
+    public static TimeSlots encode(String schedule) {
+        return TimeSlots.of(parse(schedule));
+    }
+
+    // "MWF" -> M, W, F; "TTH" -> T, TH; "SU" is Sunday, a lone "S" is Saturday.
+    // Word forms such as "Mon Wed" or "Thurs" are accepted too.
+    public static List<Integer> parseDays(String token) {
+        List<Integer> result = new ArrayList<>();
+        for (String word : token.toUpperCase().split("[^A-Z]+")) {
+            int named = dayName(word);
+            if (named >= 0) {
+                addDay(result, named);
+                continue;
+            }
+            int i = 0;
+            while (i < word.length()) {
+                char c = word.charAt(i);
+                char next = i + 1 < word.length() ? word.charAt(i + 1) : ' ';
+                if (c == 'T' && next == 'H') {
+                    addDay(result, 3);
+                    i += 2;
+                } else if (c == 'S' && next == 'U') {
+                    addDay(result, 6);
+                    i += 2;
+                } else {
+                    addDay(result, switch (c) {
+                        case 'M' -> 0;
+                        case 'T' -> 1;
+                        case 'W' -> 2;
+                        case 'F' -> 4;
+                        case 'S' -> 5;
+                        default -> -1;
+                    });
+                    i++;
+                }
+            }
+        }
+        return result;
+    }
+
+    // "8:00 AM", "8am", "1:30 PM" or 24-hour "13:30" -> minutes from midnight; -1 if unreadable
+    public static int parseTime(String text) {
+        Matcher m = TIME.matcher(text == null ? "" : text);
+        if (!m.matches()) {
+            return -1;
+        }
+        String minutes = m.group(2) == null ? "00" : m.group(2);
+        if (m.group(3) != null) {
+            return toMinutes(m.group(1), minutes, m.group(3));
+        }
+        int h = Integer.parseInt(m.group(1));
+        int min = Integer.parseInt(minutes);
+        return h < 24 && min < 60 ? h * 60 + min : -1;
+    }
+
+    private static int dayName(String word) {
+        if (word.length() < 3) {
+            return -1;
+        }
+        String[] names = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY" };
+        for (int day = 0; day < names.length; day++) {
+            if (names[day].startsWith(word)) {
+                return day;
+            }
+        }
+        return -1;
+    }
+
+    private static void addDay(List<Integer> days, int day) {
+        if (day >= 0 && !days.contains(day)) {
+            days.add(day);
+        }
+    }
+
+    private static int toMinutes(String hours, String minutes, String meridiem) {
+        int h = Integer.parseInt(hours) % 12;
+        if (Character.toUpperCase(meridiem.charAt(0)) == 'P') {
+            h += 12;
+        }
+        return h * 60 + Integer.parseInt(minutes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * What comparing a schedule needs, worked out once from its subjects: the metrics of its timetable and
+ * the subjects as sorted "SUBJECT SECTION" labels so two profiles diff with a set walk. Times are exact
+ * minutes from midnight, taken from the parsed meetings rather than 10-minute slot masks; earliestStart
+ * and latestEnd are null for a schedule with no timed classes.
+ */
+public record ScheduleProfile(int scheduleId, Long userId, String scheduleName, Set<Long> subjectIds,
+        SortedSet<String> subjects, int totalUnits, int campusMinutes, int gapMinutes,
+        Integer earliestStart, Integer latestEnd, int daysOnCampus) {
+
+    // One picked subject: its row id, label, units (null counts as 0) and parsed meetings
+    public record Subject(long dataId, String label, Integer units, List<Meeting> meetings) {
+    }
+
+    public static ScheduleProfile of(int scheduleId, Long userId, String scheduleName, Iterable<Subject> picked) {
+        Set<Long> ids = new TreeSet<>();
+        SortedSet<String> labels = new TreeSet<>();
+        List<List<Meeting>> days = new ArrayList<>();
+        for (int day = 0; day < TimeSlots.DAYS; day++) {
+            days.add(new ArrayList<>());
+        }
+        int units = 0;
+        for (Subject subject : picked) {
+            ids.add(subject.dataId());
+            labels.add(subject.label());
+            subject.meetings().forEach(meeting -> days.get(meeting.day()).add(meeting));
+            units += subject.units() == null ? 0 : subject.units();
+        }
+
+        int campus = 0;
+        int gaps = 0;
+        int daysOnCampus = 0;
+        Integer earliest = null;
+        Integer latest = null;
+        for (List<Meeting> meetings : days) {
+            if (meetings.isEmpty()) {
+                continue;
+            }
+            meetings.sort(Comparator.comparingInt(Meeting::start));
+            // merge overlapping classes so time in two of them at once is counted once
+            int first = meetings.get(0).start();
+            int runStart = first;
+            int runEnd = meetings.get(0).end();
+            int busy = 0;
+            for (Meeting meeting : meetings) {
+                if (meeting.start() > runEnd) {
+                    busy += runEnd - runStart;
+                    runStart = meeting.start();
+                }
+                runEnd = Math.max(runEnd, meeting.end());
+            }
+            busy += runEnd - runStart;
+            campus += runEnd - first;
+            gaps += runEnd - first - busy;
+            daysOnCampus++;
+            earliest = earliest == null ? first : Math.min(earliest, first);
+            latest = latest == null ? runEnd : Math.max(latest, runEnd);
+        }
+        return new ScheduleProfile(scheduleId, userId, scheduleName, Collections.unmodifiableSet(ids),
+                Collections.unmodifiableSortedSet(labels), units, campus, gaps, earliest, latest, daysOnCampus);
+    }
+
+    // Labels in other but not here
+    public SortedSet<String> missingFrom(ScheduleProfile other) {
+        SortedSet<String> added = new TreeSet<>(other.subjects);
+        added.removeAll(subjects);
+        return added;
+    }
+}
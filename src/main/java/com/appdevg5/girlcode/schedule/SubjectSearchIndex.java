@@ -0,0 +1,255 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over subject rows for search-as-you-type. Each term maps to the rows containing it and
+ * which fields it came from; query terms match as prefixes through a sorted term map, so a query touches
+ * only the postings of matching terms. Every query term must match (AND). Rows are ranked by the field
+ * each term hit (subject code highest, title lowest), with whole-word hits counting double.
+ * Reads share a lock and run concurrently; put/remove are O(terms in the row).
+ */
+public class SubjectSearchIndex {
+
+    public record Doc(long id, long userId, String subject, String subjectTitle, String offeringDept,
+            String section, String schedule, String room, String isClosed, List<Meeting> meetings) {
+    }
+
+    public record Hit(Doc doc, int score) {
+    }
+
+    /**
+     * terms: raw query text, may be blank. dept: exact department, case-insensitive. day: 0 = Monday.
+     * after/before: minutes from midnight that every class must start at or after / end by, on that day
+     * when one is given, compared with the exact meeting times. Null means no filter.
+     */
+    public record Query(String terms, Long userId, String dept, Integer day, Integer after, Integer before,
+            int limit) {
+    }
+
+    static final int SUBJECT = 1, SECTION = 2, ROOM = 4, DEPT = 8, TITLE = 16;
+    private static final int[][] WEIGHTS = { { SUBJECT, 8 }, { SECTION, 4 }, { ROOM, 3 }, { DEPT, 3 }, { TITLE, 2 } };
+
+    private static final Comparator<Hit> RANK = Comparator.comparingInt(Hit::score)
+            .thenComparing(hit -> hit.doc().id(), Comparator.reverseOrder());
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, Set<Long>> byUser = new HashMap<>();
+    // term -> row id -> bitmask of the fields holding the term
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Doc doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.id());
+            docs.put(doc.id(), doc);
+            byUser.computeIfAbsent(doc.userId(), id -> new HashSet<>()).add(doc.id());
+            fieldTerms(doc).forEach((term, fields) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(doc.id(), fields));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> ids = byUser.get(userId);
+            if (ids != null) {
+                new ArrayList<>(ids).forEach(this::removeLocked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(Query query) {
+        List<String> terms = new ArrayList<>(tokens(query.terms()));
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANK);
+            if (terms.isEmpty()) {
+                for (long id : candidatesWithoutTerms(query.userId())) {
+                    offer(top, query, docs.get(id), 0);
+                }
+            } else {
+                // score of each row per query term; rows missing any term drop out
+                Map<Long, Integer> scores = null;
+                terms.sort(Comparator.comparingInt(String::length).reversed()); // longest prefix is most selective
+                for (String term : terms) {
+                    Map<Long, Integer> termScores = match(term, query.userId(), scores);
+                    scores = termScores;
+                    if (scores.isEmpty()) {
+                        break;
+                    }
+                }
+                scores.forEach((id, score) -> offer(top, query, docs.get(id), score));
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANK.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per row for one query term, summed onto the rows that matched all earlier terms
+    private Map<Long, Integer> match(String term, Long userId, Map<Long, Integer> previous) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            boolean whole = entry.getKey().length() == term.length();
+            for (Map.Entry<Long, Integer> posting : entry.getValue().entrySet()) {
+                long id = posting.getKey();
+                if (previous != null && !previous.containsKey(id)) {
+                    continue;
+                }
+                if (userId != null && docs.get(id).userId() != userId) {
+                    continue;
+                }
+                int score = weight(posting.getValue()) * (whole ? 2 : 1);
+                scores.merge(id, score, Math::max);
+            }
+        }
+        if (previous != null) {
+            scores.replaceAll((id, score) -> score + previous.get(id));
+        }
+        return scores;
+    }
+
+    private Iterable<Long> candidatesWithoutTerms(Long userId) {
+        if (userId == null) {
+            return docs.keySet();
+        }
+        return byUser.getOrDefault(userId, Set.of());
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Query query, Doc doc, int score) {
+        if (!matchesFacets(query, doc)) {
+            return;
+        }
+        Hit hit = new Hit(doc, score);
+        if (top.size() < query.limit()) {
+            top.add(hit);
+        } else if (RANK.compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    static boolean matchesFacets(Query query, Doc doc) {
+        if (query.dept() != null && !query.dept().equalsIgnoreCase(doc.offeringDept())) {
+            return false;
+        }
+        if (query.day() == null && query.after() == null && query.before() == null) {
+            return true;
+        }
+        // exact minutes rather than the slot mask, which would move 10:45 back to 10:40
+        int start = Integer.MAX_VALUE;
+        int end = -1;
+        for (Meeting meeting : doc.meetings()) {
+            if (query.day() == null || meeting.day() == query.day()) {
+                start = Math.min(start, meeting.start());
+                end = Math.max(end, meeting.end());
+            }
+        }
+        if (end < 0) {
+            return false;
+        }
+        return (query.after() == null || start >= query.after()) && (query.before() == null || end <= query.before());
+    }
+
+    private void removeLocked(long id) {
+        Doc old = docs.remove(id);
+        if (old == null) {
+            return;
+        }
+        Set<Long> ids = byUser.get(old.userId());
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            byUser.remove(old.userId());
+        }
+        for (String term : fieldTerms(old).keySet()) {
+            Map<Long, Integer> rows = postings.get(term);
+            rows.remove(id);
+            if (rows.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Map<String, Integer> fieldTerms(Doc doc) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, doc.subject(), SUBJECT);
+        addTerms(terms, doc.section(), SECTION);
+        addTerms(terms, doc.room(), ROOM);
+        addTerms(terms, doc.offeringDept(), DEPT);
+        addTerms(terms, doc.subjectTitle(), TITLE);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int field) {
+        for (String term : tokens(text)) {
+            terms.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    private static int weight(int fields) {
+        for (int[] weight : WEIGHTS) {
+            if ((fields & weight[0]) != 0) {
+                return weight[1];
+            }
+        }
+        return 0;
+    }
+
+    // Lower-cased words; codes like "CS101" also yield "cs" and "101" so either half can be searched
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            tokens.add(word);
+            String[] parts = word.split("(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})");
+            if (parts.length > 1) {
+                tokens.addAll(List.of(parts));
+            }
+        }
+        return tokens;
+    }
+}
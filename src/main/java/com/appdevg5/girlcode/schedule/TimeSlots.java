@@ -0,0 +1,250 @@
+package com.appdevg5.girlcode.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weekly timetable as a bitset of 10-minute slots: 7 days x 144 slots, day-major,
+ * packed into 16 longs. Meetings are rounded outwards to whole slots, so masks that
+ * share no bit never conflict (at most 16 ANDs to rule a pair out), but a shared bit
+ * only means they may: back-to-back classes off the 10-minute grid, such as
+ * 10:30 - 11:45 and 11:45 - 1:00, share the 11:40 slot. Confirm hits on the exact
+ * meetings with Meeting.anyOverlap.
+ */
+public final class TimeSlots {
+
+    public static final int SLOT_MINUTES = 10;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int DAYS = 7;
+    static final int WORDS = (DAYS * SLOTS_PER_DAY + 63) / 64;
+
+    public static final TimeSlots EMPTY = new TimeSlots(new long[WORDS]);
+
+    private final long[] words;
+
+    TimeSlots(long[] words) {
+        this.words = words;
+    }
+
+    public static TimeSlots of(List<Meeting> meetings) {
+        long[] words = new long[WORDS];
+        for (Meeting m : meetings) {
+            // round outwards so a 8:05 - 8:55 class still occupies the slots it touches; this is what
+            // makes a shared bit only a candidate conflict
+            int from = m.day() * SLOTS_PER_DAY + m.start() / SLOT_MINUTES;
+            int to = m.day() * SLOTS_PER_DAY + (m.end() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            for (int bit = from; bit < to; bit++) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new TimeSlots(words);
+    }
+
+    // Inverse of toBytes(); null or empty input decodes to EMPTY.
+    public static TimeSlots fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[WORDS];
+        for (int i = 0; i < bytes.length && i < WORDS * 8; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return new TimeSlots(words);
+    }
+
+    // Little-endian bytes with trailing zero bytes trimmed, so weekday-only classes stay short.
+    public byte[] toBytes() {
+        byte[] bytes = new byte[WORDS * 8];
+        int length = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) * 8));
+            if (bytes[i] != 0) {
+                length = i + 1;
+            }
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public boolean intersects(TimeSlots other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public TimeSlots or(TimeSlots other) {
+        long[] merged = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            merged[i] = words[i] | other.words[i];
+        }
+        return new TimeSlots(merged);
+    }
+
+    public TimeSlots and(TimeSlots other) {
+        long[] common = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            common[i] = words[i] & other.words[i];
+        }
+        return new TimeSlots(common);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSet(int day, int slot) {
+        int bit = day * SLOTS_PER_DAY + slot;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public int slotCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Raw words for the hot loops in this package; callers must not modify them.
+    long[] words() {
+        return words;
+    }
+
+    public int dayCount() {
+        return dayCount(words);
+    }
+
+    // Minutes between classes on the same day, summed over the week.
+    public int gapMinutes() {
+        return gapMinutes(words);
+    }
+
+    // Earliest class start over the week in minutes from midnight, or -1 when empty.
+    public int earliestStart() {
+        int earliest = -1;
+        for (int day = 0; day < DAYS; day++) {
+            int first = firstSlot(day);
+            if (first >= 0 && (earliest < 0 || first < earliest)) {
+                earliest = first;
+            }
+        }
+        return earliest < 0 ? -1 : earliest * SLOT_MINUTES;
+    }
+
+    // Latest class end over the week in minutes from midnight, or -1 when empty.
+    public int latestEnd() {
+        int latest = -1;
+        for (int day = 0; day < DAYS; day++) {
+            latest = Math.max(latest, lastSlot(day));
+        }
+        return latest < 0 ? -1 : (latest + 1) * SLOT_MINUTES;
+    }
+
+    public int firstSlot(int day) {
+        int bit = nextSetBit(words, day * SLOTS_PER_DAY, (day + 1) * SLOTS_PER_DAY);
+        return bit < 0 ? -1 : bit - day * SLOTS_PER_DAY;
+    }
+
+    public int lastSlot(int day) {
+        int bit = previousSetBit(words, day * SLOTS_PER_DAY, (day + 1) * SLOTS_PER_DAY);
+        return bit < 0 ? -1 : bit - day * SLOTS_PER_DAY;
+    }
+
+    static int dayCount(long[] words) {
+        int count = 0;
+        for (int day = 0; day < DAYS; day++) {
+            if (nextSetBit(words, day * SLOTS_PER_DAY, (day + 1) * SLOTS_PER_DAY) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int gapMinutes(long[] words) {
+        int gapSlots = 0;
+        for (int day = 0; day < DAYS; day++) {
+            int from = day * SLOTS_PER_DAY;
+            int to = from + SLOTS_PER_DAY;
+            int first = nextSetBit(words, from, to);
+            if (first >= 0) {
+                int last = previousSetBit(words, from, to);
+                gapSlots += last - first + 1 - bitCount(words, first, last + 1);
+            }
+        }
+        return gapSlots * SLOT_MINUTES;
+    }
+
+    // Bit helpers over the half-open range [from, to), a word at a time.
+    private static int nextSetBit(long[] words, int from, int to) {
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            long word = words[w] & rangeMask(w, from, to);
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    private static int previousSetBit(long[] words, int from, int to) {
+        for (int w = (to - 1) >>> 6; w >= from >>> 6; w--) {
+            long word = words[w] & rangeMask(w, from, to);
+            if (word != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    private static int bitCount(long[] words, int from, int to) {
+        int count = 0;
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            count += Long.bitCount(words[w] & rangeMask(w, from, to));
+        }
+        return count;
+    }
+
+    private static long rangeMask(int word, int from, int to) {
+        int lo = Math.max(from - (word << 6), 0);
+        int hi = Math.min(to - (word << 6), 64);
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    // Decodes the mask back into contiguous meetings, ordered by day then start time.
+    public List<Meeting> meetings() {
+        List<Meeting> meetings = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            int slot = 0;
+            while (slot < SLOTS_PER_DAY) {
+                if (!isSet(day, slot)) {
+                    slot++;
+                    continue;
+                }
+                int start = slot;
+                while (slot < SLOTS_PER_DAY && isSet(day, slot)) {
+                    slot++;
+                }
+                meetings.add(new Meeting(day, start * SLOT_MINUTES, slot * SLOT_MINUTES));
+            }
+        }
+        return meetings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TimeSlots other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
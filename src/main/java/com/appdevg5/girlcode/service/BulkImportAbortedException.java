@@ -0,0 +1,18 @@
+package com.appdevg5.girlcode.service;
+
+import com.appdevg5.girlcode.dto.BulkImportResult;
+
+// A bulk body that broke off part-way; the rows before the break are committed and listed in the result
+public class BulkImportAbortedException extends RuntimeException {
+
+    private final transient BulkImportResult result;
+
+    public BulkImportAbortedException(String message, BulkImportResult result, Throwable cause) {
+        super(message, cause);
+        this.result = result;
+    }
+
+    public BulkImportResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads DataEntity rows one at a time from a JSON array or an NDJSON body, so a bulk
+ * import never holds the whole request in memory. A row that cannot be parsed is
+ * returned with an error instead of aborting the rest of the stream.
+ */
+public class BulkRowReader implements Iterator<BulkRowReader.Row> {
+
+    public record Row(int index, DataEntity data, String error) {
+    }
+
+    private final ObjectMapper mapper;
+    private final BufferedReader lines;
+    private final JsonParser array;
+    private Row next;
+    private int index;
+
+    private BulkRowReader(ObjectMapper mapper, BufferedReader lines, JsonParser array) {
+        this.mapper = mapper;
+        this.lines = lines;
+        this.array = array;
+    }
+
+    public static BulkRowReader ndjson(ObjectMapper mapper, InputStream in) {
+        return new BulkRowReader(mapper, new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), null);
+    }
+
+    public static BulkRowReader jsonArray(ObjectMapper mapper, InputStream in) throws IOException {
+        JsonParser parser = mapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a JSON array of rows");
+        }
+        return new BulkRowReader(mapper, null, parser);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = array != null ? readArrayElement() : readLine();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    private Row readLine() {
+        try {
+            String line;
+            do {
+                line = lines.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            int row = index++;
+            try {
+                return new Row(row, mapper.readValue(line, DataEntity.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(row, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Row readArrayElement() {
+        try {
+            JsonToken token = array.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            int row = index++;
+            if (token != JsonToken.START_OBJECT) {
+                array.skipChildren();
+                return new Row(row, null, "Expected a JSON object");
+            }
+            // Read the element as a tree first so a binding error only fails this row;
+            // a structurally broken array cannot be resynchronised and ends the stream.
+            JsonNode node = mapper.readTree(array);
+            try {
+                return new Row(row, mapper.treeToValue(node, DataEntity.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(row, null, "Invalid row: " + e.getOriginalMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg5.girlcode.entity.CatalogOfferingEntity;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.CatalogOfferingRepository;
+
+/**
+ * Deduplicates section details across users. A row being written is pointed at the catalog offering
+ * with its (term, subject, section), which the first importer creates; its own detail columns are then
+ * left null. A row whose details differ from the catalog's keeps a private copy, so one user's import
+ * never changes what another user sees. Seat counts and closed flags always stay on the user's row.
+ * Offerings are never deleted, even once no row refers to them: an importer may have just looked one up
+ * and be about to attach rows to it, so orphans (small, one per distinct section) are left in place.
+ */
+@Service
+public class CatalogService {
+
+    record Key(String term, String subject, String section) {
+        static Key of(DataEntity data) {
+            return new Key(data.getTerm() == null ? "" : data.getTerm(), data.getSubject(), data.getSection());
+        }
+
+        static Key of(CatalogOfferingEntity offering) {
+            return new Key(offering.getTerm(), offering.getSubject(), offering.getSection());
+        }
+    }
+
+    @Autowired
+    CatalogOfferingRepository catalogRepo;
+
+    private final TransactionTemplate newTransaction;
+
+    public CatalogService(PlatformTransactionManager transactionManager) {
+        // Offerings are committed on their own, so a concurrent importer of the same section sees them
+        // and a duplicate-key race never rolls back the caller's transaction
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Call after the row's slot mask is encoded and before it is saved
+    public void link(DataEntity data) {
+        linkAll(List.of(data));
+    }
+
+    // Looks up every key in one query, creating the missing offerings one by one
+    public void linkAll(List<DataEntity> rows) {
+        List<DataEntity> linkable = rows.stream()
+                .filter(data -> data.getOffering() == null && hasKey(data))
+                .toList();
+        if (linkable.isEmpty()) {
+            return;
+        }
+        Set<Key> keys = linkable.stream().map(Key::of).collect(Collectors.toSet());
+        Map<Key, CatalogOfferingEntity> offerings = new HashMap<>();
+        catalogRepo.findByTermInAndSubjectIn(keys.stream().map(Key::term).collect(Collectors.toSet()),
+                keys.stream().map(Key::subject).collect(Collectors.toSet()))
+                .forEach(offering -> offerings.put(Key.of(offering), offering));
+
+        for (DataEntity data : linkable) {
+            CatalogOfferingEntity offering = offerings.computeIfAbsent(Key.of(data), key -> create(key, data));
+            if (offering.sameDetails(data)) {
+                attach(data, offering);
+            }
+        }
+    }
+
+    // Turns a linked row back into a private copy, before its details are edited
+    public void unlink(DataEntity data) {
+        CatalogOfferingEntity offering = data.getOffering();
+        if (offering == null) {
+            return;
+        }
+        data.setOffering(null);
+        data.setTerm(offering.getTerm());
+        data.setOfferingDept(offering.getOfferingDept());
+        data.setSubject(offering.getSubject());
+        data.setSubjectTitle(offering.getSubjectTitle());
+        data.setCreditedUnits(offering.getCreditedUnits());
+        data.setSection(offering.getSection());
+        data.setSchedule(offering.getSchedule());
+        data.setSlotMask(offering.getSlotMask());
+        data.setRoom(offering.getRoom());
+    }
+
+    private static boolean hasKey(DataEntity data) {
+        return data.getSubject() != null && !data.getSubject().isBlank()
+                && data.getSection() != null && !data.getSection().isBlank();
+    }
+
+    private CatalogOfferingEntity create(Key key, DataEntity data) {
+        CatalogOfferingEntity offering = new CatalogOfferingEntity();
+        offering.setTerm(key.term());
+        offering.setSubject(key.subject());
+        offering.setSection(key.section());
+        offering.setOfferingDept(data.getOfferingDept());
+        offering.setSubjectTitle(data.getSubjectTitle());
+        offering.setCreditedUnits(data.getCreditedUnits());
+        offering.setSchedule(data.getSchedule());
+        offering.setSlotMask(data.getSlotMask());
+        offering.setRoom(data.getRoom());
+        try {
+            return newTransaction.execute(status -> catalogRepo.saveAndFlush(offering));
+        } catch (DataIntegrityViolationException e) {
+            // someone else created it first
+            return catalogRepo.findByTermAndSubjectAndSection(key.term(), key.subject(), key.section())
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static void attach(DataEntity data, CatalogOfferingEntity offering) {
+        data.setOffering(offering);
+        data.setTerm(null);
+        data.setOfferingDept(null);
+        data.setSubject(null);
+        data.setSubjectTitle(null);
+        data.setCreditedUnits(null);
+        data.setSection(null);
+        data.setSchedule(null);
+        data.setSlotMask(null);
+        data.setRoom(null);
+    }
+}
@@ -0,0 +1,266 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.appdevg5.girlcode.dto.ChangeEvent;
+import com.appdevg5.girlcode.entity.DataEntity;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-user Server-Sent Events fan-out of committed subject and schedule writes. An open stream is an
+ * async request, so idle subscribers hold a socket but no thread. Writers only queue the event on each
+ * subscriber; a small pool of send-threads drains those queues, one thread per subscriber at a time so
+ * a client gets its events in order, and a client that stops reading holds up only its own queue.
+ * A subscriber whose send has been blocked for send-timeout, or with more than max-queued events
+ * waiting, is dropped and its stream completed once the blocked send returns.
+ */
+@Service
+public class ChangeFeedService {
+
+    static final String DATA = "data";
+    static final String SCHEDULE = "schedule";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // heartbeats and the check for stalled sends; senders does the writing
+    private final ScheduledExecutorService timer;
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final int maxPerUser;
+    private final long sendTimeoutNanos;
+    private final int maxQueued;
+
+    public ChangeFeedService(@Value("${schedease.events.timeout:30m}") Duration timeout,
+                             @Value("${schedease.events.heartbeat:25s}") Duration heartbeat,
+                             @Value("${schedease.events.max-per-user:10}") int maxPerUser,
+                             @Value("${schedease.events.send-threads:4}") int sendThreads,
+                             @Value("${schedease.events.send-timeout:10s}") Duration sendTimeout,
+                             @Value("${schedease.events.max-queued:100}") int maxQueued) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPerUser = maxPerUser;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.maxQueued = maxQueued;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger count = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, task -> {
+            Thread thread = new Thread(task, "change-feed-send-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        long check = Math.max(sendTimeout.toMillis() / 2, 1);
+        timer.scheduleWithFixedDelay(this::dropStalled, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    // Past max-per-user the oldest stream is closed, so tabs that vanished without a FIN can't pile up
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        Runnable remove = () -> {
+            subscriber.closed = true;
+            remove(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        Subscriber[] oldest = new Subscriber[1];
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> emitters = set == null ? new CopyOnWriteArraySet<>() : set;
+            emitters.add(subscriber);
+            if (emitters.size() > maxPerUser) {
+                oldest[0] = emitters.iterator().next();
+                emitters.remove(oldest[0]);
+            }
+            return emitters;
+        });
+        if (oldest[0] != null) {
+            oldest[0].close();
+        }
+        // sent straight away so the response headers go out and the client knows it is listening
+        subscriber.enqueue(SseEmitter.event().name("ready").data(userId));
+        return emitter;
+    }
+
+    public int subscriberCount(Long userId) {
+        Set<Subscriber> emitters = subscribers.get(userId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    // After commit, so a client never hears about a row it can't read yet; writes outside a transaction go at once
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        List<Long> ids = event.rows().stream().map(DataEntity::getDataId).toList();
+        fanOut(event.userId(), DATA, new ChangeEvent(event.type().name(), ids));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        fanOut(event.userId(), SCHEDULE,
+                new ChangeEvent(event.type().name(), List.of((long) event.scheduleId())));
+    }
+
+    // Buffered PATCH edits that were acknowledged but could never be written; the client should reload them
+    @EventListener
+    public void onPatchFailed(PatchFailedEvent event) {
+        fanOut(event.userId(), DATA, new ChangeEvent("FAILED", event.dataIds()));
+    }
+
+    // An event builder can only be sent once, so each subscriber gets its own
+    private void fanOut(Long userId, String name, ChangeEvent change) {
+        Set<Subscriber> emitters = subscribers.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (Subscriber subscriber : emitters) {
+            subscriber.enqueue(SseEmitter.event().name(name).data(change, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // A comment line: ignored by EventSource, but a write to a closed connection fails and drops it
+    private void heartbeat() {
+        subscribers.values().forEach(emitters -> emitters.forEach(
+                subscriber -> subscriber.enqueue(SseEmitter.event().comment(""))));
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(emitters -> emitters.forEach(subscriber -> {
+            if (subscriber.stalled(now)) {
+                subscriber.close();
+            }
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, emitters) -> {
+            emitters.remove(subscriber);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        timer.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    // One open stream and the events waiting to be written to it
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        private volatile boolean completed;
+        // System.nanoTime() when the send in progress started, 0 when none is
+        private volatile long sendingSince;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                close();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        // Stops taking events; the stream is completed by the drain, after any send in progress returns
+        void close() {
+            closed = true;
+            remove(this);
+            schedule();
+        }
+
+        boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeoutNanos;
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false); // shutting down
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    sendingSince = System.nanoTime();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // the container reports the broken connection to the emitter itself; just stop sending to it
+                        closed = true;
+                        remove(this);
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+                if (closed && !completed) {
+                    completed = true;
+                    queue.clear();
+                    complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // events or a close that arrived while this drain was finishing
+            if (closed ? !completed : !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Column-per-field JSON for the subject and schedule lists, sent when a client asks for
+ * application/vnd.schedease.columns+json. Each field is one array with an entry per row, so keys are
+ * written once per list instead of once per row. Fields with few distinct values (term, department,
+ * section, schedule, room, closed flag) are dictionary-encoded as {"dict": [distinct values], "codes":
+ * [index per row, null for null]}. slotMask is server-side only and left out.
+ *
+ * Schedules become schedule columns plus subjectRows (each schedule's picked subjects as indexes into
+ * subjectList), and subjectList holds every picked subject once in the subject layout above, however
+ * many schedules share it.
+ */
+public final class ColumnarJson {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.schedease.columns+json";
+
+    private ColumnarJson() {
+    }
+
+    public static byte[] subjects(ObjectMapper mapper, List<DataEntity> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+            writeSubjects(json, rows);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] schedules(ObjectMapper mapper, List<ScheduleEntity> schedules) throws IOException {
+        Map<Long, Integer> index = new LinkedHashMap<>();
+        List<DataEntity> subjects = new ArrayList<>();
+        for (ScheduleEntity schedule : schedules) {
+            for (DataEntity data : schedule.getSubjectList()) {
+                index.computeIfAbsent(data.getDataId(), id -> {
+                    subjects.add(data);
+                    return subjects.size() - 1;
+                });
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("count", schedules.size());
+            column(json, "scheduleId", schedules, ScheduleEntity::getScheduleId);
+            column(json, "userId", schedules, ScheduleEntity::getUserId);
+            column(json, "scheduleName", schedules, ScheduleEntity::getScheduleName);
+            column(json, "isSaved", schedules, ScheduleEntity::getIsSaved);
+            json.writeArrayFieldStart("subjectRows");
+            for (ScheduleEntity schedule : schedules) {
+                json.writeStartArray();
+                for (DataEntity data : schedule.getSubjectList()) {
+                    json.writeNumber(index.get(data.getDataId()));
+                }
+                json.writeEndArray();
+            }
+            json.writeEndArray();
+            json.writeFieldName("subjectList");
+            writeSubjects(json, subjects);
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeSubjects(JsonGenerator json, List<DataEntity> rows) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("count", rows.size());
+        column(json, "dataId", rows, DataEntity::getDataId);
+        column(json, "userId", rows, DataEntity::getUserId);
+        column(json, "offeringId", rows, DataEntity::getOfferingId);
+        column(json, "version", rows, DataEntity::getVersion);
+        column(json, "number", rows, DataEntity::getNumber);
+        dictionary(json, "term", rows, DataEntity::getTerm);
+        dictionary(json, "offeringDept", rows, DataEntity::getOfferingDept);
+        column(json, "subject", rows, DataEntity::getSubject);
+        column(json, "subjectTitle", rows, DataEntity::getSubjectTitle);
+        column(json, "creditedUnits", rows, DataEntity::getCreditedUnits);
+        dictionary(json, "section", rows, DataEntity::getSection);
+        dictionary(json, "schedule", rows, DataEntity::getSchedule);
+        dictionary(json, "room", rows, DataEntity::getRoom);
+        column(json, "totalSlots", rows, DataEntity::getTotalSlots);
+        column(json, "enrolled", rows, DataEntity::getEnrolled);
+        column(json, "assessed", rows, DataEntity::getAssessed);
+        dictionary(json, "isClosed", rows, DataEntity::getIsClosed);
+        json.writeEndObject();
+    }
+
+    // Numbers, strings and booleans, as Jackson would write the property
+    private static <T> void column(JsonGenerator json, String name, List<T> rows, Function<T, Object> field)
+            throws IOException {
+        json.writeArrayFieldStart(name);
+        for (T row : rows) {
+            json.writeObject(field.apply(row));
+        }
+        json.writeEndArray();
+    }
+
+    private static <T> void dictionary(JsonGenerator json, String name, List<T> rows, Function<T, String> field)
+            throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] rowCodes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String value = field.apply(rows.get(i));
+            rowCodes[i] = value == null ? -1 : codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+        json.writeObjectFieldStart(name);
+        json.writeArrayFieldStart("dict");
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("codes");
+        for (int code : rowCodes) {
+            if (code < 0) {
+                json.writeNull();
+            } else {
+                json.writeNumber(code);
+            }
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,71 @@
+package com.appdevg5.girlcode.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.appdevg5.girlcode.dto.ConflictPair;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.schedule.ConflictIndex;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Keeps one ConflictIndex per recently used user, built on first use and then kept current from DataChangedEvents.
+@Service
+public class ConflictService {
+
+    @Autowired
+    DataRepository dataRepo;
+
+    private final Cache<Long, ConflictIndex> indexes;
+
+    public ConflictService(@Value("${schedease.conflicts.cache-size:10000}") long cacheSize,
+                           @Value("${schedease.conflicts.ttl:30m}") Duration ttl) {
+        this.indexes = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterAccess(ttl).build();
+    }
+
+    public List<ConflictPair> getConflicts(Long userId, Collection<Long> candidateIds) {
+        return index(userId).conflicts(candidateIds);
+    }
+
+    private ConflictIndex index(Long userId) {
+        return indexes.get(userId, id -> {
+            ConflictIndex index = new ConflictIndex();
+            dataRepo.findAllByUser_UserId(id).forEach(data -> put(index, data));
+            return index;
+        });
+    }
+
+    // Exact minutes from the schedule text: the 10-minute slot mask would make back-to-back classes overlap
+    private static void put(ConflictIndex index, DataEntity data) {
+        index.put(data.getDataId(), data.getSubject(), ScheduleParser.parse(data.getSchedule()));
+    }
+
+    // After commit, so an index built meanwhile has read the change or is still loading; computeIfPresent
+    // waits for a load in progress and applies the change on top of it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.type() == DataChangedEvent.Type.CLEARED) {
+            indexes.invalidate(event.userId());
+            return;
+        }
+        // users nobody has asked about yet are built lazily from the database
+        indexes.asMap().computeIfPresent(event.userId(), (id, index) -> {
+            for (DataEntity data : event.rows()) {
+                if (event.type() == DataChangedEvent.Type.DELETED) {
+                    index.remove(data.getDataId());
+                } else {
+                    put(index, data);
+                }
+            }
+            return index;
+        });
+    }
+}
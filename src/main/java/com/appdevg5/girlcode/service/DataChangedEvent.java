@@ -0,0 +1,17 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+
+/**
+ * Published by DataService after it changes a user's rows, so in-memory views
+ * (indexes, caches) can follow without DataService knowing about them.
+ * CLEARED means the user's rows changed wholesale and carries no rows.
+ */
+public record DataChangedEvent(Type type, Long userId, List<DataEntity> rows) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, CLEARED
+    }
+}
@@ -0,0 +1,202 @@
+package com.appdevg5.girlcode.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Write-behind for PATCH /api/data/{id}, used by DataService when schedease.write-behind.enabled is set.
+ * Edits to the same row are merged in memory, later values winning, and handed to the writer together
+ * every interval, or as soon as max-pending rows are waiting, so a burst of per-field edits becomes one
+ * UPDATE per row in one batch. Each row also keeps a view (the row as read, with its edits applied),
+ * which is what a PATCH answers with; rows being written stay visible until the write is done.
+ * Rows the writer could not write go back in the queue, under any newer edits, and are tried again on
+ * the next flushes; after MAX_ATTEMPTS they are dropped and handed to onDropped so the client can be told.
+ */
+final class DataPatchBuffer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DataPatchBuffer.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    // A row's merged edits, what its writer should see, and how many writes of it have failed
+    private record Pending(Long userId, ObjectNode fields, ObjectNode view, int failures) {
+    }
+
+    // writes a batch and returns the ids it could not write
+    private final Function<Map<Long, ObjectNode>, Set<Long>> writer;
+    private final BiConsumer<Long, List<Long>> onDropped;
+    private final int maxPending;
+    private final ScheduledExecutorService flusher;
+
+    // both guarded by this; flushLock is held from taking a batch until it is written
+    private final Map<Long, Pending> pending = new LinkedHashMap<>();
+    private Map<Long, Pending> inFlight = Map.of();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    DataPatchBuffer(Function<Map<Long, ObjectNode>, Set<Long>> writer, BiConsumer<Long, List<Long>> onDropped,
+                    Duration interval, int maxPending) {
+        this.writer = writer;
+        this.onDropped = onDropped;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "data-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Merges fields into the row's pending edits and returns a copy of its view. loader reads a row
+    // that has nothing pending (outside the lock) and must carry its userId.
+    ObjectNode add(Long dataId, ObjectNode fields, Function<Long, ObjectNode> loader) {
+        ObjectNode base = view(dataId);
+        if (base == null) {
+            base = loader.apply(dataId);
+        }
+        ObjectNode view;
+        boolean full;
+        synchronized (this) {
+            ObjectNode start = base;
+            Pending entry = pending.computeIfAbsent(dataId, id -> new Pending(start.path("userId").asLong(),
+                    JsonNodeFactory.instance.objectNode(), start, 0));
+            entry.fields().setAll(fields);
+            entry.view().setAll(fields);
+            view = entry.view().deepCopy();
+            full = pending.size() >= maxPending;
+        }
+        if (full) {
+            flusher.execute(this::flushAll);
+        }
+        return view;
+    }
+
+    // The row with its unwritten edits, or null when it has none
+    synchronized ObjectNode view(Long dataId) {
+        Pending entry = pending.containsKey(dataId) ? pending.get(dataId) : inFlight.get(dataId);
+        return entry == null ? null : entry.view().deepCopy();
+    }
+
+    void flushAll() {
+        flush(null);
+    }
+
+    // Returns once every edit to the user's rows made before the call is in the database, or has failed
+    void flushUser(Long userId) {
+        if (hasWork(userId)) {
+            flush(userId);
+        }
+    }
+
+    void flushRow(Long dataId) {
+        Long userId;
+        synchronized (this) {
+            Pending entry = pending.containsKey(dataId) ? pending.get(dataId) : inFlight.get(dataId);
+            userId = entry == null ? null : entry.userId();
+        }
+        if (userId != null) {
+            flush(userId);
+        }
+    }
+
+    private synchronized boolean hasWork(Long userId) {
+        return pending.values().stream().anyMatch(entry -> entry.userId().equals(userId))
+                || inFlight.values().stream().anyMatch(entry -> entry.userId().equals(userId));
+    }
+
+    // userId null takes every row
+    private void flush(Long userId) {
+        flushLock.lock();
+        try {
+            Map<Long, ObjectNode> batch = new LinkedHashMap<>();
+            synchronized (this) {
+                Map<Long, Pending> taken = new HashMap<>();
+                pending.entrySet().removeIf(entry -> {
+                    if (userId != null && !userId.equals(entry.getValue().userId())) {
+                        return false;
+                    }
+                    taken.put(entry.getKey(), entry.getValue());
+                    batch.put(entry.getKey(), entry.getValue().fields());
+                    return true;
+                });
+                inFlight = taken;
+            }
+            if (!batch.isEmpty()) {
+                Set<Long> failed;
+                try {
+                    failed = writer.apply(batch);
+                } catch (RuntimeException e) {
+                    log.warn("Writing buffered subject edits failed: {}", e.getMessage());
+                    failed = batch.keySet();
+                }
+                requeue(failed);
+            }
+        } finally {
+            synchronized (this) {
+                inFlight = Map.of();
+            }
+            flushLock.unlock();
+        }
+    }
+
+    // Puts failed rows back, older edits under newer ones, or drops them once they have failed too often
+    private void requeue(Set<Long> failed) {
+        Map<Long, List<Long>> dropped = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Long dataId : failed) {
+                Pending old = inFlight.get(dataId);
+                if (old == null) {
+                    continue;
+                }
+                Pending newer = pending.remove(dataId);
+                if (old.failures() + 1 >= MAX_ATTEMPTS) {
+                    dropped.computeIfAbsent(old.userId(), id -> new ArrayList<>()).add(dataId);
+                    if (newer != null) {
+                        pending.put(dataId, newer);
+                    }
+                    continue;
+                }
+                ObjectNode fields = old.fields().deepCopy();
+                if (newer != null) {
+                    fields.setAll(newer.fields());
+                }
+                pending.put(dataId, new Pending(old.userId(), fields, newer != null ? newer.view() : old.view(),
+                        old.failures() + 1));
+            }
+        }
+        dropped.forEach((userId, ids) -> {
+            log.warn("Dropped buffered edits to subjects {} of user {} after {} failed writes", ids, userId,
+                    MAX_ATTEMPTS);
+            onDropped.accept(userId, ids);
+        });
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        // enough rounds for every failing row to be retried or dropped and reported
+        for (int round = 0; round < MAX_ATTEMPTS && hasWork(); round++) {
+            flushAll();
+        }
+    }
+
+    private synchronized boolean hasWork() {
+        return !pending.isEmpty();
+    }
+}
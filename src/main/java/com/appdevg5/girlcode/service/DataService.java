@@ -1,54 +1,284 @@
 package com.appdevg5.girlcode.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.appdevg5.girlcode.dto.BulkImportResult;
+import com.appdevg5.girlcode.dto.BulkImportResult.RowResult;
+import com.appdevg5.girlcode.dto.ClearResult;
+import com.appdevg5.girlcode.dto.KeysetPage;
+import com.appdevg5.girlcode.dto.ListSnapshot;
 import com.appdevg5.girlcode.entity.DataEntity;
-import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.repository.DataBatchRepository;
 import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.repository.DataSummary;
 import com.appdevg5.girlcode.repository.ScheduleRepository;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
 
 @Service
 public class DataService {
 
+    // Fields a PATCH may set; the rest are ids, links or derived
+    private static final Set<String> PATCHABLE = Set.of("term", "number", "offeringDept", "subject", "subjectTitle",
+            "creditedUnits", "section", "schedule", "room", "totalSlots", "enrolled", "assessed", "isClosed");
+
+    // Fields read through to the catalog offering while a row is linked to one
+    private static final Set<String> DETAILS = Set.of("term", "offeringDept", "subject", "subjectTitle",
+            "creditedUnits", "section", "schedule", "room");
+
     @Autowired
     DataRepository dataRepo;
 
     @Autowired
     ScheduleRepository scheduleRepo;
 
-    public DataService(DataRepository dataRepo) {
+    @Autowired
+    UserRepository userRepo;
+
+    @Autowired
+    DataBatchRepository dataBatchRepo;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher events;
+
+    @Autowired
+    UserListCache listCache;
+
+    @Autowired
+    CatalogService catalogService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${schedease.bulk.chunk-size:200}")
+    int bulkChunkSize;
+
+    @Value("${schedease.page.max-limit:500}")
+    int maxPageSize;
+
+    @Value("${schedease.clear.chunk-size:1000}")
+    int clearChunkSize;
+
+    // null unless schedease.write-behind.enabled; PATCHes are then written in batches (see DataPatchBuffer)
+    private final DataPatchBuffer patchBuffer;
+
+    public DataService(DataRepository dataRepo,
+                       @Value("${schedease.write-behind.enabled:false}") boolean writeBehind,
+                       @Value("${schedease.write-behind.interval:500ms}") Duration flushInterval,
+                       @Value("${schedease.write-behind.max-pending:500}") int maxPending) {
         this.dataRepo = dataRepo;
+        this.patchBuffer = writeBehind ? new DataPatchBuffer(this::writeBuffered,
+                (userId, ids) -> events.publishEvent(new PatchFailedEvent(userId, ids)), flushInterval, maxPending)
+                : null;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (patchBuffer != null) {
+            patchBuffer.close();
+        }
     }
 
     // C - CREATE
     public DataEntity postData(DataEntity data) {
-        return dataRepo.save(data);
+        if (data.getDataId() == null) {
+            data.setVersion(null); // a version would make Spring Data treat the row as existing
+        }
+        encodeSchedule(data);
+        catalogService.link(data);
+        DataEntity saved = dataRepo.save(data);
+        publish(DataChangedEvent.Type.CREATED, saved.getUser().getUserId(), List.of(saved));
+        return saved;
+    }
+
+    // C - BULK CREATE
+    // Rows are written in chunks, each chunk as one JDBC batch in its own transaction. A body that breaks
+    // off part-way (malformed JSON the reader can't resynchronise past) keeps every row before the break
+    // and ends in BulkImportAbortedException, whose result says which rows went in.
+    public BulkImportResult postDataBulk(Long userId, Iterator<BulkRowReader.Row> rows) {
+        return postDataBulk(userId, rows, done -> {
+        });
+    }
+
+    // progress is told about each failed row and each written chunk as soon as they are done
+    public BulkImportResult postDataBulk(Long userId, Iterator<BulkRowReader.Row> rows,
+            Consumer<List<RowResult>> progress) {
+        if (!userRepo.existsById(userId)) {
+            throw new NoSuchElementException("User with ID " + userId + " does not exist!");
+        }
+
+        List<RowResult> results = new ArrayList<>();
+        List<BulkRowReader.Row> chunk = new ArrayList<>(bulkChunkSize);
+        int read = 0;
+        UncheckedIOException broken = null;
+        try {
+            while (rows.hasNext()) {
+                BulkRowReader.Row row = rows.next();
+                read++;
+                String error = row.error() != null ? row.error() : validateBulkRow(row.data());
+                if (error != null) {
+                    report(results, List.of(RowResult.failed(row.index(), error)), progress);
+                    continue;
+                }
+                encodeSchedule(row.data());
+                chunk.add(row);
+                if (chunk.size() >= bulkChunkSize) {
+                    report(results, insertChunk(userId, chunk), progress);
+                    chunk.clear();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            broken = e;
+        }
+        if (!chunk.isEmpty()) {
+            report(results, insertChunk(userId, chunk), progress);
+        }
+
+        results.sort(Comparator.comparingInt(RowResult::row));
+        int inserted = (int) results.stream().filter(r -> r.dataId() != null).count();
+        if (inserted > 0) {
+            // Plain JDBC bypasses Hibernate, so cached findByUser_UserId results don't know about these rows.
+            // Evicted once per import rather than per chunk; until then list reads may still show the old rows,
+            // and so may lists cached from them, hence the second eviction.
+            entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegion(DataRepository.USER_DATA_QUERY_REGION);
+            listCache.evictData(userId);
+        }
+        BulkImportResult result = new BulkImportResult(userId, inserted, results.size() - inserted, results);
+        if (broken != null) {
+            String reason = broken.getCause() instanceof JsonProcessingException json
+                    ? json.getOriginalMessage() : broken.getCause().getMessage();
+            throw new BulkImportAbortedException("Request body is malformed after " + read + " rows; the " + inserted
+                    + " rows written before that were kept: " + reason, result, broken);
+        }
+        return result;
+    }
+
+    private static void report(List<RowResult> results, List<RowResult> done, Consumer<List<RowResult>> progress) {
+        results.addAll(done);
+        progress.accept(done);
+    }
+
+    private List<RowResult> insertChunk(Long userId, List<BulkRowReader.Row> chunk) {
+        List<DataEntity> data = chunk.stream().map(BulkRowReader.Row::data).collect(Collectors.toList());
+        List<RowResult> results = new ArrayList<>(chunk.size());
+        catalogService.linkAll(data);
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> dataBatchRepo.insertBatch(userId, data));
+            for (int i = 0; i < chunk.size(); i++) {
+                data.get(i).setDataId(ids.get(i));
+                results.add(RowResult.ok(chunk.get(i).index(), ids.get(i)));
+            }
+            publish(DataChangedEvent.Type.CREATED, userId, data);
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                results.add(RowResult.failed(chunk.get(0).index(), e.getMostSpecificCause().getMessage()));
+                return results;
+            }
+            // The whole batch rolled back; retry row by row so only the offending rows fail.
+            for (BulkRowReader.Row row : chunk) {
+                results.addAll(insertChunk(userId, List.of(row)));
+            }
+        }
+        return results;
+    }
+
+    private String validateBulkRow(DataEntity data) {
+        if (data == null) {
+            return "Row is empty";
+        }
+        if (data.getSubject() == null || data.getSubject().isBlank()) {
+            return "subject is required";
+        }
+        return null;
     }
 
     // R - READ ALL
     public List<DataEntity> getAllData() {
+        flushPending(null);
         return dataRepo.findAll();
     }
 
     // R - READ BY USER ID
     public List<DataEntity> getDataByUserId(Long userId) {
+        flushPending(userId);
         return dataRepo.findByUser_UserId(userId);
     }
 
+    // R - READ BY USER, serialized and cached until the user's rows change
+    public ListSnapshot getDataSnapshot(Long userId) {
+        flushPending(userId);
+        return listCache.data(userId, () -> dataRepo.findByUser_UserId(userId));
+    }
+
+    // R - READ BY USER, in the columnar layout (see ColumnarJson)
+    public ListSnapshot getDataColumnsSnapshot(Long userId) {
+        flushPending(userId);
+        return listCache.dataColumns(userId, () -> dataRepo.findByUser_UserId(userId));
+    }
+
+    // R - READ ONE PAGE (keyset on dataId, list-view columns only)
+    public KeysetPage<DataSummary> getDataPage(Long userId, long after, int limit) {
+        flushPending(userId);
+        int size = Math.min(Math.max(limit, 1), maxPageSize);
+        List<DataSummary> items = dataRepo.findSummaries(userId, after, Limit.of(size));
+        Long next = items.size() < size ? null : items.get(items.size() - 1).getDataId();
+        return new KeysetPage<>(items, next);
+    }
+
     // U - UPDATE
     public DataEntity updateData(Long id, DataEntity newDataDetails) {
+        flushRow(id);
         DataEntity data = dataRepo.findById(id)
             .orElseThrow(() -> new NoSuchElementException("Data with ID " + id + " does not exist!"));
+        // the client edited an older copy; the save below also catches writes that race this check
+        if (newDataDetails.getVersion() != null && !newDataDetails.getVersion().equals(data.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(DataEntity.class, id);
+        }
+
+        // a shared section is copied before it is edited; link() below shares it again if it still matches
+        String term = newDataDetails.getTerm() != null ? newDataDetails.getTerm() : data.getTerm();
+        catalogService.unlink(data);
 
         // update
+        data.setTerm(term);
         data.setNumber(newDataDetails.getNumber());
         data.setOfferingDept(newDataDetails.getOfferingDept());
         data.setSubject(newDataDetails.getSubject());
@@ -56,6 +286,7 @@ public class DataService {
         data.setCreditedUnits(newDataDetails.getCreditedUnits());
         data.setSection(newDataDetails.getSection());
         data.setSchedule(newDataDetails.getSchedule());
+        encodeSchedule(data);
         data.setRoom(newDataDetails.getRoom());
         data.setTotalSlots(newDataDetails.getTotalSlots());
         data.setEnrolled(newDataDetails.getEnrolled());
@@ -63,14 +294,198 @@ public class DataService {
         if (newDataDetails.getIsClosed() != null) {
             data.setIsClosed(newDataDetails.getIsClosed());
         }
+        catalogService.link(data);
 
-        return dataRepo.save(data);
+        DataEntity saved = dataRepo.save(data);
+        publish(DataChangedEvent.Type.UPDATED, saved.getUser().getUserId(), List.of(saved));
+        return saved;
+    }
+
+    // U - PATCH: only the fields sent. Answers with the row as it will be once written; with write-behind
+    // on, the write happens on the next flush, and reads of the user's list flush first.
+    public JsonNode patchData(Long id, ObjectNode fields) {
+        validatePatch(fields);
+        if (patchBuffer == null) {
+            return writePatches(Map.of(id, fields)).stream().findFirst()
+                    .<JsonNode>map(objectMapper::valueToTree)
+                    .orElseThrow(() -> new NoSuchElementException("Data with ID " + id + " does not exist!"));
+        }
+        ObjectNode view = patchBuffer.add(id, fields, dataId -> objectMapper.valueToTree(getOrThrow(dataId)));
+        if (fields.has("schedule")) {
+            view.put("slotMask", ScheduleParser.encode(view.path("schedule").textValue()).toBytes());
+        }
+        return view;
+    }
+
+    private void validatePatch(ObjectNode fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Send at least one field to change");
+        }
+        fields.fieldNames().forEachRemaining(name -> {
+            if (!PATCHABLE.contains(name)) {
+                throw new IllegalArgumentException("'" + name + "' can't be changed with PATCH");
+            }
+        });
+        try {
+            objectMapper.treeToValue(fields, DataEntity.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable field value: " + e.getOriginalMessage());
+        }
+    }
+
+    // Loads the rows in one query, applies the edits to the managed copies and flushes them in one
+    // transaction, which Hibernate sends as one JDBC batch of UPDATEs. Rows deleted meanwhile are skipped.
+    private List<DataEntity> writePatches(Map<Long, ObjectNode> patches) {
+        List<DataEntity> saved = transactionTemplate.execute(status -> {
+            List<DataEntity> rows = dataRepo.findAllById(patches.keySet());
+            rows.forEach(row -> applyPatch(row, patches.get(row.getDataId())));
+            dataRepo.flush();
+            return rows;
+        });
+        saved.stream().collect(Collectors.groupingBy(DataEntity::getUserId))
+                .forEach((userId, changed) -> publish(DataChangedEvent.Type.UPDATED, userId, changed));
+        return saved;
+    }
+
+    // Writer for DataPatchBuffer: returns the ids whose edits could not be written
+    private Set<Long> writeBuffered(Map<Long, ObjectNode> patches) {
+        try {
+            writePatches(patches);
+            return Set.of();
+        } catch (DataAccessException | IllegalArgumentException e) {
+            if (patches.size() == 1) {
+                return patches.keySet();
+            }
+        }
+        // The batch rolled back, e.g. one row can't be stored; retry row by row on fresh copies
+        Set<Long> failed = new HashSet<>();
+        patches.forEach((id, fields) -> failed.addAll(writeBuffered(Map.of(id, fields))));
+        return failed;
+    }
+
+    // Same steps as updateData, but a linked row is only copied out of the catalog when a detail changes
+    private void applyPatch(DataEntity data, ObjectNode fields) {
+        boolean details = false;
+        for (Iterator<String> names = fields.fieldNames(); names.hasNext();) {
+            details |= DETAILS.contains(names.next());
+        }
+        if (details) {
+            catalogService.unlink(data);
+        }
+        try {
+            objectMapper.readerForUpdating(data).readValue(fields);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable field value: " + e.getMessage());
+        }
+        if (details) {
+            encodeSchedule(data);
+            catalogService.link(data);
+        }
+    }
+
+    private void flushPending(Long userId) {
+        if (patchBuffer == null) {
+            return;
+        }
+        if (userId == null) {
+            patchBuffer.flushAll();
+        } else {
+            patchBuffer.flushUser(userId);
+        }
+    }
+
+    // Buffered edits to a row are written before anything else changes it
+    private void flushRow(Long id) {
+        if (patchBuffer != null) {
+            patchBuffer.flushRow(id);
+        }
+    }
+
+    private void publish(DataChangedEvent.Type type, Long userId, List<DataEntity> rows) {
+        events.publishEvent(new DataChangedEvent(type, userId, rows));
+    }
+
+    // U - ENROLL / UNENROLL: one conditional UPDATE each, so concurrent seat changes never lock or overwrite each other
+    public DataEntity enroll(Long id) {
+        flushRow(id);
+        if (dataRepo.enroll(id) == 0) {
+            getOrThrow(id);
+            throw new SeatConflictException("Data with ID " + id + " has no free slots");
+        }
+        return changed(getOrThrow(id));
+    }
+
+    public DataEntity unenroll(Long id) {
+        flushRow(id);
+        if (dataRepo.unenroll(id) == 0) {
+            getOrThrow(id);
+            throw new SeatConflictException("Data with ID " + id + " has no one enrolled");
+        }
+        return changed(getOrThrow(id));
+    }
+
+    private DataEntity getOrThrow(Long id) {
+        return dataRepo.findById(id)
+            .orElseThrow(() -> new NoSuchElementException("Data with ID " + id + " does not exist!"));
+    }
+
+    private DataEntity changed(DataEntity data) {
+        publish(DataChangedEvent.Type.UPDATED, data.getUser().getUserId(), List.of(data));
+        return data;
+    }
+
+    // Parses the schedule string once, on write, into its slot mask.
+    private void encodeSchedule(DataEntity data) {
+        data.setSlotMask(ScheduleParser.encode(data.getSchedule()).toBytes());
+    }
+
+    // Rows written before slot masks existed get theirs on startup, a page at a time. Every instance
+    // runs this; one that loses a race for a page to another's version bump looks again and finds it done.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSlotMasks() {
+        List<DataEntity> page;
+        Long failedPage = null;
+        while (!(page = dataRepo.findTop500BySlotMaskIsNullAndOfferingIsNull()).isEmpty()) {
+            page.forEach(this::encodeSchedule);
+            try {
+                dataRepo.saveAll(page);
+            } catch (OptimisticLockingFailureException e) {
+                if (page.get(0).getDataId().equals(failedPage)) {
+                    throw e;
+                }
+                failedPage = page.get(0).getDataId();
+            }
+        }
+        linkCatalogOfferings();
+    }
+
+    // Rows written before the catalog existed are pointed at it, so their copies of the details are dropped.
+    // A page another instance is linking at the same time is left to it.
+    private void linkCatalogOfferings() {
+        List<DataEntity> page;
+        long after = 0;
+        while (!(page = dataRepo.findTop500ByOfferingIsNullAndDataIdGreaterThanOrderByDataId(after)).isEmpty()) {
+            catalogService.linkAll(page);
+            try {
+                dataRepo.saveAll(page.stream().filter(data -> data.getOffering() != null).toList());
+            } catch (OptimisticLockingFailureException e) {
+                // already linked elsewhere
+            }
+            after = page.get(page.size() - 1).getDataId();
+        }
     }
 
     // D - DELETE
     public String deleteData(Long id) {
-        if (dataRepo.existsById(id)) {
-            dataRepo.deleteById(id);
+        flushRow(id);
+        DataEntity data = dataRepo.findById(id).orElse(null);
+        if (data != null) {
+            // one transaction, so no schedule is left without the subject while the row itself survives
+            transactionTemplate.executeWithoutResult(status -> {
+                scheduleRepo.unlinkSubject(id);
+                dataRepo.delete(data);
+            });
+            publish(DataChangedEvent.Type.DELETED, data.getUser().getUserId(), List.of(data));
             return "Data with ID " + id + " is successfully deleted!";
         } else {
             return "Data with ID " + id + " does not exist!";
@@ -79,49 +494,47 @@ public class DataService {
 
     // D - DELETE ALL FOR USER (Clear List)
     public String clearUserData(Long userId) {
-        List<DataEntity> userDataList = dataRepo.findByUser_UserId(userId);
-        if (userDataList.isEmpty()) {
-            return "No data found for user ID " + userId;
-        }
-        
-        // Get all saved schedules for this user
-        List<ScheduleEntity> savedSchedules = scheduleRepo.findByUser_UserId(userId);
-        
-        // Extract all subject IDs that are in saved schedules
-        Set<Long> protectedSubjectIds = new HashSet<>();
-        ObjectMapper mapper = new ObjectMapper();
-        
-        for (ScheduleEntity schedule : savedSchedules) {
-            if (schedule.getSubjects() != null && !schedule.getSubjects().isEmpty()) {
-                try {
-                    // Parse the JSON array of subject IDs
-                    Long[] subjectIds = mapper.readValue(schedule.getSubjects(), Long[].class);
-                    for (Long id : subjectIds) {
-                        protectedSubjectIds.add(id);
-                    }
-                } catch (Exception e) {
-                    // If parsing fails, skip this schedule
-                    System.err.println("Failed to parse subjects for schedule: " + schedule.getScheduleId());
-                }
+        return clearUserDataWithCounts(userId).message();
+    }
+
+    // Subjects picked by one of the user's own schedules are kept; other users' picks are dropped along
+    // with the subject. Small lists go in one transaction; large ones in id-ordered chunks, each its own
+    // short transaction, so locks are never held long.
+    public ClearResult clearUserDataWithCounts(Long userId) {
+        flushPending(userId);
+        long total = dataRepo.countByUser_UserId(userId);
+        if (total == 0) {
+            return new ClearResult(0, 0, "No data found for user ID " + userId);
+        }
+
+        long count = 0;
+        if (total <= clearChunkSize) {
+            count = transactionTemplate.execute(status -> {
+                scheduleRepo.unlinkForeignPicks(userId);
+                return dataRepo.deleteUnscheduledByUserId(userId);
+            });
+        } else {
+            List<Long> ids;
+            long after = 0;
+            while (!(ids = dataRepo.findUnscheduledIds(userId, after, Limit.of(clearChunkSize))).isEmpty()) {
+                List<Long> chunk = ids;
+                count += transactionTemplate.execute(status -> {
+                    scheduleRepo.unlinkForeignPicks(userId, chunk);
+                    return dataRepo.deleteUnscheduledByIds(chunk);
+                });
+                after = ids.get(ids.size() - 1);
             }
         }
-        
-        // Filter out subjects that are in saved schedules
-        List<DataEntity> subjectsToDelete = userDataList.stream()
-            .filter(data -> !protectedSubjectIds.contains(data.getDataId()))
-            .collect(Collectors.toList());
-        
-        if (subjectsToDelete.isEmpty()) {
-            return "No subjects to delete (all subjects are in saved schedules)";
-        }
-        
-        int count = subjectsToDelete.size();
-        int protectedCount = userDataList.size() - count;
-        dataRepo.deleteAll(subjectsToDelete);
-        
+        long protectedCount = total - count;
+        if (count == 0) {
+            return new ClearResult(0, protectedCount, "No subjects to delete (all subjects are in saved schedules)");
+        }
+        publish(DataChangedEvent.Type.CLEARED, userId, List.of());
+
         if (protectedCount > 0) {
-            return "Successfully deleted " + count + " items. " + protectedCount + " subjects preserved (in saved schedules)";
+            return new ClearResult(count, protectedCount,
+                "Successfully deleted " + count + " items. " + protectedCount + " subjects preserved (in saved schedules)");
         }
-        return "Successfully deleted " + count + " items for user ID " + userId;
+        return new ClearResult(count, 0, "Successfully deleted " + count + " items for user ID " + userId);
     }
 }
@@ -0,0 +1,154 @@
+package com.appdevg5.girlcode.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.appdevg5.girlcode.entity.InvalidationEntity;
+import com.appdevg5.girlcode.repository.InvalidationRepository;
+
+/**
+ * schedease.cluster.bus=database: messages go through the cache_invalidation table, which every instance
+ * already reaches. Each instance appends its own messages from a background thread and polls for the
+ * others' every poll-interval, so another instance's write is seen here within about one interval.
+ * Ids are taken at insert but rows show up at commit, possibly out of order, so each poll looks a few
+ * ids back and skips the ones it has already seen.
+ */
+public class DatabaseInvalidationBus implements InvalidationBus, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInvalidationBus.class);
+
+    private static final int LOOKBACK = 50;
+    private static final int PURGE_EVERY = 100;
+
+    private final String nodeId;
+    private final InvalidationRepository repo;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final List<Consumer<Message>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService worker;
+
+    // only touched on the worker thread
+    private long floor;
+    private long lastSeen;
+    private long polls;
+    private final Set<Long> seen = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > 4096;
+        }
+    });
+
+    public DatabaseInvalidationBus(String nodeId, InvalidationRepository repo, Duration pollInterval,
+                                   Duration retention) {
+        this.nodeId = nodeId;
+        this.repo = repo;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Starts at the end of the log: older messages describe writes that a freshly started instance already reads
+    public void start() {
+        worker.execute(() -> {
+            floor = repo.findMaxId();
+            lastSeen = floor;
+        });
+        worker.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(Message message) {
+        worker.execute(() -> {
+            InvalidationEntity row = new InvalidationEntity();
+            row.setOrigin(message.origin());
+            row.setTopic(message.topic().name());
+            row.setType(message.type());
+            row.setUserId(message.userId());
+            row.setIds(message.ids().stream().map(String::valueOf).collect(Collectors.joining(",")));
+            row.setCreatedAt(Instant.now());
+            try {
+                repo.save(row);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish {} {} for user {}: {}", message.topic(), message.type(),
+                        message.userId(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<Message> listener) {
+        listeners.add(listener);
+    }
+
+    private void poll() {
+        try {
+            for (InvalidationEntity row : repo.findTop500ByIdGreaterThanOrderById(Math.max(floor, lastSeen - LOOKBACK))) {
+                if (!seen.add(row.getId())) {
+                    continue;
+                }
+                lastSeen = Math.max(lastSeen, row.getId());
+                if (!nodeId.equals(row.getOrigin())) {
+                    deliver(toMessage(row));
+                }
+            }
+            if (++polls % PURGE_EVERY == 0) {
+                repo.deleteOlderThan(Instant.now().minus(retention));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Invalidation poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(Message message) {
+        for (Consumer<Message> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Could not apply {} {} for user {}: {}", message.topic(), message.type(),
+                        message.userId(), e.getMessage());
+            }
+        }
+    }
+
+    private static Message toMessage(InvalidationEntity row) {
+        List<Long> ids = row.getIds() == null || row.getIds().isEmpty() ? List.of()
+                : Arrays.stream(row.getIds().split(",")).map(Long::valueOf).toList();
+        return new Message(row.getOrigin(), Topic.valueOf(row.getTopic()), row.getType(), row.getUserId(), ids);
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            // let queued publishes reach the table
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.repository.ScheduleRepository;
+import com.appdevg5.girlcode.repository.ScheduleSubjectRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes a user's subjects or schedules straight from a database cursor to an output stream.
+ * Rows are detached as soon as they are written, so memory stays flat whatever the row count.
+ * The export queries alone read fetch-size rows per round trip (Integer.MIN_VALUE makes MySQL
+ * Connector/J stream them); every other query keeps the driver's default buffered reads.
+ *
+ * A download holds its connection until the client has read the last row, however slowly it reads,
+ * so at most max-running exports hold one at a time; the rest wait here without a connection.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    static final String[] DATA_COLUMNS = { "dataId", "number", "offeringDept", "subject", "subjectTitle",
+            "creditedUnits", "section", "schedule", "room", "totalSlots", "enrolled", "assessed", "isClosed" };
+
+    static final String[] SCHEDULE_COLUMNS = { "scheduleId", "scheduleName", "isSaved", "dataId", "subject",
+            "section", "schedule", "room" };
+
+    // Rows written between flushes, so the client sees progress without a flush per row
+    private static final int FLUSH_EVERY = 500;
+
+    // An export run inside the read-only transaction
+    private interface Export {
+        void write() throws IOException;
+    }
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Value("${schedease.export.fetch-size:500}")
+    int fetchSize;
+
+    private final TransactionTemplate readOnly;
+    private final Semaphore running;
+
+    public ExportService(PlatformTransactionManager transactionManager,
+                         @Value("${schedease.export.max-running:4}") int maxRunning) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.running = new Semaphore(maxRunning, true);
+    }
+
+    // One line per subject row
+    public void exportData(Long userId, Format format, OutputStream out) throws IOException {
+        export(() -> writeData(userId, format, out));
+    }
+
+    // CSV: one line per (schedule, picked subject). NDJSON: one object per schedule with its subjects nested.
+    public void exportSchedules(Long userId, Format format, OutputStream out) throws IOException {
+        export(() -> writeSchedules(userId, format, out));
+    }
+
+    private void export(Export body) throws IOException {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export was interrupted");
+        }
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try {
+                    body.write();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            running.release();
+        }
+    }
+
+    private void writeData(Long userId, Format format, OutputStream out) throws IOException {
+        try (Stream<DataEntity> rows = entityManager.createQuery(DataRepository.EXPORT_QUERY, DataEntity.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                // a one-off full read shouldn't push everything else out of the second-level cache
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            if (format == Format.CSV) {
+                Writer writer = csvWriter(out, DATA_COLUMNS);
+                int written = 0;
+                for (Iterator<DataEntity> it = rows.iterator(); it.hasNext();) {
+                    DataEntity data = it.next();
+                    writeCsv(writer, data.getDataId(), data.getNumber(), data.getOfferingDept(), data.getSubject(),
+                            data.getSubjectTitle(), data.getCreditedUnits(), data.getSection(), data.getSchedule(),
+                            data.getRoom(), data.getTotalSlots(), data.getEnrolled(), data.getAssessed(),
+                            data.getIsClosed());
+                    entityManager.detach(data);
+                    flushPeriodically(writer, ++written);
+                }
+                writer.flush();
+            } else {
+                JsonGenerator json = ndjsonGenerator(out);
+                int written = 0;
+                for (Iterator<DataEntity> it = rows.iterator(); it.hasNext();) {
+                    DataEntity data = it.next();
+                    json.writeStartObject();
+                    json.writeObjectField("dataId", data.getDataId());
+                    json.writeObjectField("number", data.getNumber());
+                    json.writeStringField("offeringDept", data.getOfferingDept());
+                    json.writeStringField("subject", data.getSubject());
+                    json.writeStringField("subjectTitle", data.getSubjectTitle());
+                    json.writeObjectField("creditedUnits", data.getCreditedUnits());
+                    json.writeStringField("section", data.getSection());
+                    json.writeStringField("schedule", data.getSchedule());
+                    json.writeStringField("room", data.getRoom());
+                    json.writeObjectField("totalSlots", data.getTotalSlots());
+                    json.writeObjectField("enrolled", data.getEnrolled());
+                    json.writeObjectField("assessed", data.getAssessed());
+                    json.writeStringField("isClosed", data.getIsClosed());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    entityManager.detach(data);
+                    flushPeriodically(json, ++written);
+                }
+                json.flush();
+            }
+        }
+    }
+
+    private void writeSchedules(Long userId, Format format, OutputStream out) throws IOException {
+        try (Stream<ScheduleSubjectRow> rows = entityManager
+                .createQuery(ScheduleRepository.EXPORT_QUERY, ScheduleSubjectRow.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            if (format == Format.CSV) {
+                Writer writer = csvWriter(out, SCHEDULE_COLUMNS);
+                int written = 0;
+                for (Iterator<ScheduleSubjectRow> it = rows.iterator(); it.hasNext();) {
+                    ScheduleSubjectRow row = it.next();
+                    writeCsv(writer, row.scheduleId(), row.scheduleName(), row.isSaved(), row.dataId(),
+                            row.subject(), row.section(), row.schedule(), row.room());
+                    flushPeriodically(writer, ++written);
+                }
+                writer.flush();
+            } else {
+                JsonGenerator json = ndjsonGenerator(out);
+                Integer current = null;
+                int written = 0;
+                for (Iterator<ScheduleSubjectRow> it = rows.iterator(); it.hasNext();) {
+                    ScheduleSubjectRow row = it.next();
+                    if (!row.scheduleId().equals(current)) {
+                        if (current != null) {
+                            endSchedule(json);
+                            flushPeriodically(json, ++written);
+                        }
+                        current = row.scheduleId();
+                        json.writeStartObject();
+                        json.writeNumberField("scheduleId", current);
+                        json.writeStringField("scheduleName", row.scheduleName());
+                        json.writeBooleanField("isSaved", row.isSaved());
+                        json.writeArrayFieldStart("subjects");
+                    }
+                    if (row.dataId() != null) {
+                        json.writeStartObject();
+                        json.writeNumberField("dataId", row.dataId());
+                        json.writeStringField("subject", row.subject());
+                        json.writeStringField("section", row.section());
+                        json.writeStringField("schedule", row.schedule());
+                        json.writeStringField("room", row.room());
+                        json.writeEndObject();
+                    }
+                }
+                if (current != null) {
+                    endSchedule(json);
+                }
+                json.flush();
+            }
+        }
+    }
+
+    // Lines are ended explicitly, so no separator between root values
+    private JsonGenerator ndjsonGenerator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        return json;
+    }
+
+    private static void endSchedule(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static Writer csvWriter(OutputStream out, String[] header) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsv(writer, (Object[]) header);
+        return writer;
+    }
+
+    // RFC 4180: quote fields holding a comma, quote or line break, doubling inner quotes. Null is an empty field.
+    static void writeCsv(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] == null) {
+                continue;
+            }
+            String value = fields[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // First row right away, then once per fetch
+    private static void flushPeriodically(Flushable out, int written) throws IOException {
+        if (written == 1 || written % FLUSH_EVERY == 0) {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.appdevg5.girlcode.dto.BulkImportResult.RowResult;
+import com.appdevg5.girlcode.dto.ImportJobStatus;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background imports of pasted offering text. The upload is spooled to a temp file and the request
+ * returns a job id at once. The job then runs as two tasks joined by a bounded queue: one parses the
+ * file with PlainTextRowReader, the other validates and inserts through DataService.postDataBulk a
+ * chunk at a time. When inserts fall behind, the full queue blocks the parser, so memory stays at
+ * queue-capacity rows whatever the file size. Both tasks run on this service's own threads, max-running
+ * of each, so imports never hold threads of the shared task executor; jobs past max-running wait in the
+ * job pool's queue without a thread.
+ */
+@Service
+public class ImportService {
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    // Marks the end of the parsed rows in the queue
+    private static final BulkRowReader.Row END = new BulkRowReader.Row(-1, null, null);
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    UserRepository userRepo;
+
+    @Value("${schedease.import.queue-capacity:1000}")
+    int queueCapacity;
+
+    @Value("${schedease.import.max-bytes:50000000}")
+    long maxBytes;
+
+    @Value("${schedease.import.max-reported-failures:100}")
+    int maxReportedFailures;
+
+    private final ExecutorService runner;
+    private final ExecutorService parsers;
+    private final Cache<String, Job> jobs;
+
+    public ImportService(@Value("${schedease.import.max-running:2}") int maxRunning,
+                         @Value("${schedease.import.retention:1h}") Duration retention) {
+        // one parser per running job, so a job's parser always has a thread of its own
+        this.runner = Executors.newFixedThreadPool(maxRunning, daemon("import-job"));
+        this.parsers = Executors.newFixedThreadPool(maxRunning, daemon("import-parse"));
+        // a job is forgotten once nobody has asked about it for this long
+        this.jobs = Caffeine.newBuilder().expireAfterAccess(retention).build();
+    }
+
+    // C - START IMPORT
+    public ImportJobStatus start(Long userId, InputStream body) throws IOException {
+        if (!userRepo.existsById(userId)) {
+            throw new NoSuchElementException("User with ID " + userId + " does not exist!");
+        }
+        Path file = spool(body);
+        Job job = new Job(UUID.randomUUID().toString(), userId, Files.size(file));
+        jobs.put(job.id, job);
+        runner.execute(() -> run(job, file));
+        return job.status();
+    }
+
+    // R - PROGRESS
+    public Optional<ImportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::status);
+    }
+
+    private void run(Job job, Path file) {
+        Future<?> parser = null;
+        try {
+            job.state = State.RUNNING;
+            BlockingQueue<BulkRowReader.Row> queue = new ArrayBlockingQueue<>(queueCapacity);
+            parser = parsers.submit(() -> parse(job, file, queue));
+            dataService.postDataBulk(job.userId, drain(queue), job::record);
+            parser.get(); // a parse failure ends the job as FAILED, keeping the rows already written
+            job.state = State.DONE;
+        } catch (ExecutionException e) {
+            job.fail(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (RuntimeException e) {
+            job.fail(e);
+        } finally {
+            if (parser != null) {
+                parser.cancel(true);
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // left in the temp directory
+            }
+        }
+    }
+
+    // Producer: blocks on a full queue until the inserts catch up. run() cancels it whenever it stops
+    // reading, which interrupts any put; after that nobody drains the queue, so END is left out.
+    private Void parse(Job job, Path file, BlockingQueue<BulkRowReader.Row> queue) throws IOException, InterruptedException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), job.bytesRead), StandardCharsets.UTF_8))) {
+            PlainTextRowReader rows = new PlainTextRowReader(reader);
+            while (rows.hasNext()) {
+                queue.put(rows.next());
+                job.parsed.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            if (!Thread.currentThread().isInterrupted()) {
+                queue.put(END);
+            }
+        }
+        return null;
+    }
+
+    // Consumer side of the queue, read by postDataBulk as a plain iterator
+    private static Iterator<BulkRowReader.Row> drain(BlockingQueue<BulkRowReader.Row> queue) {
+        return new Iterator<>() {
+            private BulkRowReader.Row next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Import was interrupted", e);
+                    }
+                }
+                return next != END;
+            }
+
+            @Override
+            public BulkRowReader.Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                BulkRowReader.Row row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    @PreDestroy
+    void close() {
+        runner.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // The request body is gone once start() returns, so the job reads its own copy
+    private Path spool(InputStream body) throws IOException {
+        Path file = Files.createTempFile("schedease-import-", ".txt");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int n;
+            while ((n = body.read(buffer)) > 0) {
+                total += n;
+                if (total > maxBytes) {
+                    throw new IllegalArgumentException("Import is larger than " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    final class Job {
+        final String id;
+        final Long userId;
+        final long totalBytes;
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicInteger parsed = new AtomicInteger();
+        final AtomicInteger inserted = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final List<RowResult> failures = new ArrayList<>();
+        volatile State state = State.QUEUED;
+        volatile String error;
+
+        Job(String id, Long userId, long totalBytes) {
+            this.id = id;
+            this.userId = userId;
+            this.totalBytes = totalBytes;
+        }
+
+        void record(List<RowResult> done) {
+            for (RowResult result : done) {
+                if (result.dataId() != null) {
+                    inserted.incrementAndGet();
+                    continue;
+                }
+                failed.incrementAndGet();
+                synchronized (failures) {
+                    if (failures.size() < maxReportedFailures) {
+                        failures.add(result);
+                    }
+                }
+            }
+        }
+
+        void fail(Throwable cause) {
+            error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            state = State.FAILED;
+        }
+
+        ImportJobStatus status() {
+            List<RowResult> reported;
+            synchronized (failures) {
+                reported = List.copyOf(failures);
+            }
+            return new ImportJobStatus(id, userId, state.name(), bytesRead.get(), totalBytes, parsed.get(),
+                    inserted.get(), failed.get(), error, reported);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
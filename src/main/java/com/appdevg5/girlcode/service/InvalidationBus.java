@@ -0,0 +1,31 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries "this changed" notes between application instances, so each one can drop or refresh what it
+ * keeps in memory (list snapshots, indexes, parsed schedules, login cache) after another instance writes.
+ * Chosen with schedease.cluster.bus: local for a single instance, database (DatabaseInvalidationBus) for
+ * instances sharing a database.
+ * Messages name what changed, never its contents; receivers read the rows themselves.
+ */
+public interface InvalidationBus {
+
+    enum Topic {
+        DATA, SCHEDULE, USER
+    }
+
+    // type is a DataChangedEvent.Type name; ids are data, schedule or user ids as topic says
+    record Message(String origin, Topic topic, String type, Long userId, List<Long> ids) {
+    }
+
+    // This instance's name; messages carry it as origin
+    String nodeId();
+
+    // Sends to every other instance; never blocks on them
+    void publish(Message message);
+
+    // listener is called for messages from other instances only, one at a time
+    void subscribe(Consumer<Message> listener);
+}
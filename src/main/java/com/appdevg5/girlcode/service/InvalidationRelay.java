@@ -0,0 +1,116 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Connects the local change events to the InvalidationBus. Committed writes here are sent as messages;
+ * messages from other instances are turned back into the same local events, so every in-memory view that
+ * follows DataChangedEvent or ScheduleChangedEvent (caches, indexes, the SSE feed) follows writes made on
+ * any instance. Created and updated rows are re-read from the database; deleted ones are passed by id.
+ */
+@Service
+public class InvalidationRelay {
+
+    // set while a remote message is replayed, so it isn't sent back out
+    private static final ThreadLocal<Boolean> replaying = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    InvalidationBus bus;
+
+    @Autowired
+    DataRepository dataRepo;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ApplicationEventPublisher events;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void listen() {
+        bus.subscribe(this::replay);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        send(InvalidationBus.Topic.DATA, event.type(), event.userId(),
+                event.rows().stream().map(DataEntity::getDataId).toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        send(InvalidationBus.Topic.SCHEDULE, event.type(), event.userId(), List.of((long) event.scheduleId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        send(InvalidationBus.Topic.USER, DataChangedEvent.Type.UPDATED, event.userId(), List.of(event.userId()));
+    }
+
+    private void send(InvalidationBus.Topic topic, DataChangedEvent.Type type, Long userId, List<Long> ids) {
+        if (!replaying.get()) {
+            bus.publish(new InvalidationBus.Message(bus.nodeId(), topic, type.name(), userId, ids));
+        }
+    }
+
+    private void replay(InvalidationBus.Message message) {
+        DataChangedEvent.Type type = DataChangedEvent.Type.valueOf(message.type());
+        replaying.set(true);
+        try {
+            switch (message.topic()) {
+                case DATA -> replayData(type, message.userId(), message.ids());
+                case SCHEDULE -> {
+                    message.ids().forEach(id -> evict(ScheduleEntity.class, id.intValue()));
+                    message.ids().forEach(id -> events.publishEvent(
+                            new ScheduleChangedEvent(type, message.userId(), id.intValue())));
+                }
+                case USER -> {
+                    evict(UserEntity.class, message.userId());
+                    userService.forgetLogin(message.userId());
+                    events.publishEvent(new UserChangedEvent(message.userId()));
+                }
+            }
+        } finally {
+            replaying.remove();
+        }
+    }
+
+    private void replayData(DataChangedEvent.Type type, Long userId, List<Long> ids) {
+        // the second-level cache, when on, is per instance too
+        ids.forEach(id -> evict(DataEntity.class, id));
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(DataRepository.USER_DATA_QUERY_REGION);
+        List<DataEntity> rows = switch (type) {
+            case CREATED, UPDATED -> dataRepo.findAllById(ids);
+            case DELETED -> ids.stream().map(InvalidationRelay::deleted).toList();
+            case CLEARED -> List.of();
+        };
+        events.publishEvent(new DataChangedEvent(type, userId, rows));
+    }
+
+    private void evict(Class<?> entity, Object id) {
+        entityManagerFactory.getCache().evict(entity, id);
+    }
+
+    private static DataEntity deleted(Long id) {
+        DataEntity data = new DataEntity();
+        data.setDataId(id);
+        return data;
+    }
+}
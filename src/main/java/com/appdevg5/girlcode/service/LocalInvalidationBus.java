@@ -0,0 +1,26 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.function.Consumer;
+
+// schedease.cluster.bus=local: one instance, so there is nobody to tell and nothing to hear
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final String nodeId;
+
+    public LocalInvalidationBus(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(Message message) {
+    }
+
+    @Override
+    public void subscribe(Consumer<Message> listener) {
+    }
+}
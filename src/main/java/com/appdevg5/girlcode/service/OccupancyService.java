@@ -0,0 +1,105 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.appdevg5.girlcode.dto.OccupancyCell;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.repository.OccupancyRow;
+import com.appdevg5.girlcode.schedule.OccupancyGrid;
+import com.appdevg5.girlcode.schedule.TimeSlots;
+
+// Campus-wide room occupancy from one OccupancyGrid, loaded on the first request and then kept current
+// from DataChangedEvents. The cell list is built once and reused until the next change.
+@Service
+public class OccupancyService {
+
+    private static final int LOAD_CHUNK = 1000;
+
+    @Autowired
+    DataRepository dataRepo;
+
+    private final OccupancyGrid grid = new OccupancyGrid();
+    private boolean loaded;
+    private volatile List<OccupancyCell> cells;
+
+    public List<OccupancyCell> getOccupancy() {
+        List<OccupancyCell> current = cells;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (cells == null) {
+                if (!loaded) {
+                    load(null);
+                    loaded = true;
+                }
+                cells = grid.cells().stream().map(OccupancyService::toCell).toList();
+            }
+            return cells;
+        }
+    }
+
+    private void load(Long userId) {
+        long after = 0;
+        List<OccupancyRow> page;
+        do {
+            page = dataRepo.findOccupancyRows(userId, after, Limit.of(LOAD_CHUNK));
+            for (OccupancyRow row : page) {
+                grid.put(toRow(row.getDataId(), row.getUserId(), row.getTerm(), row.getSubject(), row.getSection(),
+                        row.getRoom(), row.getSlotMask(), row.getEnrolled(), row.getTotalSlots()));
+                after = row.getDataId();
+            }
+        } while (page.size() == LOAD_CHUNK);
+    }
+
+    // Synchronized with getOccupancy, so a change never lands between building the cells and publishing them
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        cells = null;
+        if (event.type() == DataChangedEvent.Type.CLEARED) {
+            grid.removeUser(event.userId());
+            load(event.userId());
+            return;
+        }
+        for (DataEntity data : event.rows()) {
+            if (event.type() == DataChangedEvent.Type.DELETED) {
+                grid.remove(data.getDataId());
+            } else {
+                grid.put(toRow(data.getDataId(), event.userId(), data.getTerm(), data.getSubject(), data.getSection(),
+                        data.getRoom(), data.getSlotMask(), data.getEnrolled(), data.getTotalSlots()));
+            }
+        }
+    }
+
+    // Sections are matched like catalog offerings, by term, subject and section; rows missing either
+    // of the last two can't be matched and count on their own
+    private static OccupancyGrid.Row toRow(Long id, Long userId, String term, String subject, String section,
+            String room, byte[] slotMask, Integer enrolled, Integer totalSlots) {
+        String key = subject == null || subject.isBlank() || section == null
+                ? "#" + id
+                : normalize(term) + "|" + normalize(subject) + "|" + normalize(section);
+        String place = normalize(room);
+        return new OccupancyGrid.Row(id, userId, key, place.isEmpty() ? null : place, TimeSlots.fromBytes(slotMask),
+                enrolled == null ? 0 : enrolled, totalSlots == null ? 0 : totalSlots);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static OccupancyCell toCell(OccupancyGrid.Cell cell) {
+        Double fill = cell.totalSlots() > 0 ? (double) cell.enrolled() / cell.totalSlots() : null;
+        return new OccupancyCell(cell.room(), cell.day(), cell.start(), cell.end(), cell.sections(), cell.enrolled(),
+                cell.totalSlots(), fill);
+    }
+}
@@ -0,0 +1,11 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+
+/**
+ * Published by DataService when buffered PATCH edits to some of a user's rows could not be written
+ * (see DataPatchBuffer). The PATCH already answered 2xx, so this is how the client hears the edits
+ * were lost and the rows should be reloaded.
+ */
+public record PatchFailedEvent(Long userId, List<Long> dataIds) {
+}
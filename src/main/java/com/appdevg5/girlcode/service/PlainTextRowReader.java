@@ -0,0 +1,144 @@
+package com.appdevg5.girlcode.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+
+/**
+ * Reads rows pasted from the registrar's offering list, the same way the frontend's parsePlain did.
+ * A row is a header line "# dept subject title... units section", then schedule lines, then an
+ * optional line holding room, slot counts and the closed flag (told apart by having a number on it).
+ * Columns are split on tabs when a line has any, otherwise on whitespace. Reads a line at a time.
+ */
+public class PlainTextRowReader implements Iterator<BulkRowReader.Row> {
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern CLOSED_FLAG = Pattern.compile("(?i)yes|no|y|n|true|false");
+
+    private final BufferedReader lines;
+    private BulkRowReader.Row next;
+    private int index;
+
+    public PlainTextRowReader(BufferedReader lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BulkRowReader.Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BulkRowReader.Row row = next;
+        next = null;
+        return row;
+    }
+
+    private BulkRowReader.Row readRow() {
+        String header = nextLine();
+        if (header == null) {
+            return null;
+        }
+        DataEntity data = new DataEntity();
+        List<String> tokens = tokens(header);
+        data.setNumber(toInt(token(tokens, 0)));
+        data.setOfferingDept(token(tokens, 1));
+        data.setSubject(token(tokens, 2));
+        if (tokens.size() >= 5) {
+            data.setCreditedUnits(toInt(tokens.get(tokens.size() - 2)));
+            data.setSection(tokens.get(tokens.size() - 1));
+            data.setSubjectTitle(String.join(" ", tokens.subList(3, tokens.size() - 2)));
+        } else {
+            data.setSection("");
+            data.setSubjectTitle(tokens.size() > 3 ? String.join(" ", tokens.subList(3, tokens.size())) : "");
+        }
+
+        // schedule lines run until the first line with a number on it, which is the seat line
+        List<String> schedule = new ArrayList<>();
+        String line;
+        while ((line = nextLine()) != null && !hasNumber(line)) {
+            schedule.add(line);
+        }
+        data.setSchedule(String.join(" / ", schedule));
+
+        data.setRoom("");
+        data.setIsClosed("false");
+        if (line != null) {
+            readSeats(data, tokens(line));
+        }
+        return new BulkRowReader.Row(index++, data, null);
+    }
+
+    // "room... total enrolled assessed [closed]": numbers are the counts in order, the rest is the room
+    private static void readSeats(DataEntity data, List<String> parts) {
+        List<String> numbers = parts.stream().filter(NUMBER.asMatchPredicate()).toList();
+        List<String> words = new ArrayList<>(parts.stream().filter(NUMBER.asMatchPredicate().negate()).toList());
+        data.setTotalSlots(toInt(token(numbers, 0)));
+        data.setEnrolled(toInt(token(numbers, 1)));
+        data.setAssessed(toInt(token(numbers, 2)));
+        if (!words.isEmpty() && CLOSED_FLAG.matcher(words.get(words.size() - 1)).matches()) {
+            String flag = words.remove(words.size() - 1).toLowerCase(Locale.ROOT);
+            data.setIsClosed(String.valueOf(flag.startsWith("y") || flag.equals("true")));
+        }
+        data.setRoom(String.join(" ", words));
+    }
+
+    // Next non-blank line, trimmed, with non-breaking spaces as plain spaces
+    private String nextLine() {
+        try {
+            String line;
+            do {
+                line = lines.readLine();
+                if (line == null) {
+                    return null;
+                }
+                line = line.replace('\u00A0', ' ').trim();
+            } while (line.isEmpty());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean hasNumber(String line) {
+        return tokens(line).stream().anyMatch(NUMBER.asMatchPredicate());
+    }
+
+    private static List<String> tokens(String line) {
+        String[] parts = line.indexOf('\t') >= 0 ? line.split("\t") : line.split("\\s+");
+        return Arrays.stream(parts).map(String::trim).filter(part -> !part.isEmpty()).toList();
+    }
+
+    private static String token(List<String> tokens, int i) {
+        return i < tokens.size() ? tokens.get(i) : "";
+    }
+
+    // Digits, dot and minus only, like the frontend's toNum; whole units and counts
+    private static Integer toInt(String value) {
+        String digits = value.replaceAll("[^0-9.\\-]", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        try {
+            return (int) Double.parseDouble(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.appdevg5.girlcode.service;
+
+/**
+ * Published by ScheduleService after it creates, updates or deletes one of a user's schedules.
+ * Uses the same types as DataChangedEvent; CLEARED is never sent for schedules.
+ */
+public record ScheduleChangedEvent(DataChangedEvent.Type type, Long userId, int scheduleId) {
+}
@@ -0,0 +1,156 @@
+package com.appdevg5.girlcode.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.appdevg5.girlcode.dto.ScheduleComparison;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.repository.ScheduleRepository;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.appdevg5.girlcode.schedule.ScheduleProfile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Side-by-side metrics for saved schedules. Each schedule is turned into a ScheduleProfile once and
+ * cached by id; a comparison then only reads profiles. Invalidation is per user: a committed change to
+ * a user's schedules or subjects stamps the user on a shared clock, and a cached profile read before
+ * its user's latest stamp is stale and read again. Loads are stamped before they query, so a load
+ * racing a change can't put an outdated profile back as fresh.
+ */
+@Service
+public class ScheduleCompareService {
+
+    @Autowired
+    ScheduleRepository srepo;
+
+    @Value("${schedease.compare.max-ids:20}")
+    int maxIds;
+
+    // A profile and the clock reading taken before it was queried
+    private record Entry(ScheduleProfile profile, long loadedAt) {
+    }
+
+    private final Cache<Integer, Entry> profiles;
+    // When each user's schedules or subjects last changed, on the clock. An entry only needs to outlive
+    // the profiles read before it, and those expire within ttl of their last read, which came before it.
+    private final Cache<Long, Long> changedAt;
+    private final AtomicLong clock = new AtomicLong();
+
+    public ScheduleCompareService(@Value("${schedease.compare.cache-size:10000}") long cacheSize,
+                                  @Value("${schedease.compare.ttl:30m}") Duration ttl) {
+        this.profiles = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterAccess(ttl).build();
+        this.changedAt = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+    }
+
+    public ScheduleComparison compare(List<Integer> ids) {
+        Set<Integer> unique = new LinkedHashSet<>(ids);
+        if (unique.isEmpty() || unique.size() > maxIds) {
+            throw new IllegalArgumentException("ids must name between 1 and " + maxIds + " schedules");
+        }
+        Map<Integer, ScheduleProfile> found = new HashMap<>();
+        profiles.getAllPresent(unique).forEach((id, entry) -> {
+            if (isFresh(entry)) {
+                found.put(id, entry.profile());
+            }
+        });
+        Set<Integer> missing = new HashSet<>(unique);
+        missing.removeAll(found.keySet());
+        if (!missing.isEmpty()) {
+            long loadedAt = clock.get();
+            load(missing).forEach((id, profile) -> {
+                profiles.put(id, new Entry(profile, loadedAt));
+                found.put(id, profile);
+            });
+        }
+        List<ScheduleProfile> picked = new ArrayList<>(unique.size());
+        for (Integer id : unique) {
+            ScheduleProfile profile = found.get(id);
+            if (profile == null) {
+                throw new NoSuchElementException("Schedule " + id + " does not exist");
+            }
+            picked.add(profile);
+        }
+
+        List<ScheduleComparison.Metrics> metrics = picked.stream().map(ScheduleCompareService::toMetrics).toList();
+        List<ScheduleComparison.Diff> pairs = new ArrayList<>();
+        for (int i = 0; i < picked.size(); i++) {
+            for (int j = i + 1; j < picked.size(); j++) {
+                ScheduleProfile from = picked.get(i);
+                ScheduleProfile to = picked.get(j);
+                pairs.add(new ScheduleComparison.Diff(from.scheduleId(), to.scheduleId(),
+                        List.copyOf(from.missingFrom(to)), List.copyOf(to.missingFrom(from))));
+            }
+        }
+        return new ScheduleComparison(metrics, pairs);
+    }
+
+    // After commit, so a load that starts later reads the change; CREATED can't affect a saved schedule
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.type() != DataChangedEvent.Type.CREATED) {
+            changed(event.userId());
+        }
+    }
+
+    // Only edits and deletes can change a saved schedule: new rows aren't picked yet, and a clear keeps picked rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.type() == DataChangedEvent.Type.UPDATED || event.type() == DataChangedEvent.Type.DELETED) {
+            changed(event.userId());
+        }
+    }
+
+    private void changed(Long userId) {
+        if (userId != null) {
+            changedAt.put(userId, clock.incrementAndGet());
+        }
+    }
+
+    private boolean isFresh(Entry entry) {
+        Long userId = entry.profile().userId();
+        Long changed = userId == null ? null : changedAt.getIfPresent(userId);
+        return changed == null || changed <= entry.loadedAt();
+    }
+
+    // Misses are read together, with their subjects and catalog offerings in the same query
+    private Map<Integer, ScheduleProfile> load(Set<Integer> ids) {
+        return srepo.findByScheduleIdIn(ids).stream()
+                .collect(Collectors.toMap(ScheduleEntity::getScheduleId, ScheduleCompareService::profile));
+    }
+
+    private static ScheduleProfile profile(ScheduleEntity schedule) {
+        List<ScheduleProfile.Subject> subjects = schedule.getSubjectList().stream()
+                .map(data -> new ScheduleProfile.Subject(data.getDataId(), label(data), data.getCreditedUnits(),
+                        ScheduleParser.parse(data.getSchedule())))
+                .toList();
+        return ScheduleProfile.of(schedule.getScheduleId(), schedule.getUserId(), schedule.getScheduleName(), subjects);
+    }
+
+    private static String label(DataEntity data) {
+        String subject = data.getSubject() == null ? "" : data.getSubject().trim();
+        String section = data.getSection() == null ? "" : data.getSection().trim();
+        return section.isEmpty() ? subject : subject + " " + section;
+    }
+
+    private static ScheduleComparison.Metrics toMetrics(ScheduleProfile profile) {
+        return new ScheduleComparison.Metrics(profile.scheduleId(), profile.scheduleName(),
+                List.copyOf(profile.subjects()), profile.totalUnits(), profile.campusMinutes(), profile.gapMinutes(),
+                profile.earliestStart(), profile.latestEnd(), profile.daysOnCampus());
+    }
+}
@@ -0,0 +1,96 @@
+package com.appdevg5.girlcode.service;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.appdevg5.girlcode.dto.GenerateRequest;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.schedule.ScheduleGenerator;
+import com.appdevg5.girlcode.schedule.Meeting;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+
+@Service
+public class ScheduleGeneratorService {
+
+    @Autowired
+    DataRepository dataRepo;
+
+    @Value("${schedease.generator.max-limit:500}")
+    int maxLimit;
+
+    @Value("${schedease.generator.max-candidates:2000000}")
+    long maxCandidates;
+
+    // Builds a generator over the user's sections of the requested subjects.
+    // Sections that are closed, full or have a meeting starting before notBefore are left out up front.
+    public ScheduleGenerator prepare(GenerateRequest request) {
+        if (request.userId() == null || request.subjects() == null || request.subjects().isEmpty()) {
+            throw new IllegalArgumentException("userId and at least one subject are required");
+        }
+        int notBefore = request.notBefore() == null || request.notBefore().isBlank()
+                ? 0
+                : parseTime(request.notBefore()).toSecondOfDay() / 60;
+        boolean includeClosed = Boolean.TRUE.equals(request.includeClosed());
+
+        Map<String, List<ScheduleGenerator.Option>> courses = new LinkedHashMap<>();
+        for (String subject : request.subjects()) {
+            courses.put(normalize(subject), new ArrayList<>());
+        }
+        for (DataEntity data : dataRepo.findByUser_UserId(request.userId())) {
+            List<ScheduleGenerator.Option> sections = courses.get(normalize(data.getSubject()));
+            if (sections == null || (!includeClosed && !isOpen(data))) {
+                continue;
+            }
+            // exact start minutes, so notBefore=08:05 keeps a section starting at 8:05
+            List<Meeting> meetings = ScheduleParser.parse(data.getSchedule());
+            if (meetings.stream().allMatch(meeting -> meeting.start() >= notBefore)) {
+                sections.add(ScheduleGenerator.Option.of(data.getDataId(), meetings));
+            }
+        }
+        courses.forEach((subject, sections) -> {
+            if (sections.isEmpty()) {
+                throw new NoSuchElementException("No usable section of " + subject + " for user ID " + request.userId());
+            }
+        });
+
+        int limit = request.limit() == null ? 50 : Math.min(Math.max(request.limit(), 1), maxLimit);
+        ScheduleGenerator.Rank rank = request.rank() == null
+                ? ScheduleGenerator.Rank.FEWEST_GAPS
+                : ScheduleGenerator.Rank.valueOf(request.rank().toUpperCase(Locale.ROOT));
+        return new ScheduleGenerator(new ArrayList<>(courses.values()), rank, limit, maxCandidates);
+    }
+
+    // A section can be picked unless it is marked closed or has no slots left.
+    static boolean isOpen(DataEntity data) {
+        String closed = data.getIsClosed();
+        if (closed != null && (closed.equalsIgnoreCase("true") || closed.equalsIgnoreCase("yes")
+                || closed.equalsIgnoreCase("y") || closed.equalsIgnoreCase("closed"))) {
+            return false;
+        }
+        return data.getTotalSlots() == null || data.getEnrolled() == null || data.getEnrolled() < data.getTotalSlots();
+    }
+
+    // notBefore is an ISO time such as "09:30"
+    private static LocalTime parseTime(String time) {
+        try {
+            return LocalTime.parse(time);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("notBefore must be a time like 09:30, got \"" + time + "\"", e);
+        }
+    }
+
+    private static String normalize(String subject) {
+        return subject == null ? "" : subject.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,48 +1,75 @@
 package com.appdevg5.girlcode.service;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.appdevg5.girlcode.dto.KeysetPage;
+import com.appdevg5.girlcode.dto.ListSnapshot;
+import com.appdevg5.girlcode.entity.DataEntity;
 import com.appdevg5.girlcode.entity.ScheduleEntity;
 import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
 import com.appdevg5.girlcode.repository.ScheduleRepository;
+import com.appdevg5.girlcode.repository.ScheduleSummary;
 import com.appdevg5.girlcode.repository.UserRepository;
 
 @Service // contains the business logic of ur system
 public class ScheduleService {
 
+    static final String DEFAULT_EMAIL = "default@example.com";
+
     @Autowired
     ScheduleRepository srepo;
 
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    DataRepository dataRepo;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    UserListCache listCache;
+
+    @Autowired
+    ApplicationEventPublisher events;
+
+    @Value("${schedease.page.max-limit:500}")
+    int maxPageSize;
+
     public ScheduleService() {
         super();
     }
 
     // Create (C)
     public ScheduleEntity postScheduleRecord(ScheduleEntity schedule) {
-        // If user is not set, use default user (id=1)
+        // If user is not set, use the default user
         if (schedule.getUser() == null) {
-            // Fetch the default user from DB
-            UserEntity defaultUser = userRepository.findById(1L).orElse(null);
-            if (defaultUser == null) {
-                // Create default user if not exists
-                defaultUser = new UserEntity();
-                defaultUser.setUserId(1L);
-                defaultUser.setUsername("default");
-                defaultUser.setEmail("default@example.com");
-                defaultUser.setFullName("Default User");
-                defaultUser.setPassword("default");
-                defaultUser = userRepository.save(defaultUser);
-            }
-            schedule.setUser(defaultUser);
+            schedule.setUser(defaultUser());
         }
-        return srepo.save(schedule);
+        resolveSubjects(schedule, schedule.getRequestedSubjectIds());
+        ScheduleEntity saved = srepo.save(schedule);
+        publish(DataChangedEvent.Type.CREATED, saved);
+        return saved;
     }
 
     // Read (R)
@@ -55,6 +82,24 @@ public class ScheduleService {
         return srepo.findByUser_UserId(userId);
     }
 
+    // Read by user ID, serialized and cached until the user's schedules or subjects change
+    public ListSnapshot getSchedulesSnapshot(Long userId) {
+        return listCache.schedules(userId, () -> srepo.findByUser_UserId(userId));
+    }
+
+    // Read by user ID, in the columnar layout (see ColumnarJson)
+    public ListSnapshot getSchedulesColumnsSnapshot(Long userId) {
+        return listCache.schedulesColumns(userId, () -> srepo.findByUser_UserId(userId));
+    }
+
+    // Read one page (keyset on scheduleId, list-view columns only)
+    public KeysetPage<ScheduleSummary> getSchedulePage(Long userId, int after, int limit) {
+        int size = Math.min(Math.max(limit, 1), maxPageSize);
+        List<ScheduleSummary> items = srepo.findSummaries(userId, after, Limit.of(size));
+        Long next = items.size() < size ? null : (long) items.get(items.size() - 1).getScheduleId();
+        return new KeysetPage<>(items, next);
+    }
+
     public ScheduleEntity updateSchedule(int scheduleId, ScheduleEntity newScheduleDetails) {
         ScheduleEntity schedule = srepo.findById(scheduleId)
             .orElseThrow(() -> new NoSuchElementException("Schedule " + scheduleId + " does not exist!"));
@@ -62,16 +107,88 @@ public class ScheduleService {
         //update the record
         schedule.setScheduleName(newScheduleDetails.getScheduleName());
         schedule.setIsSaved(newScheduleDetails.getIsSaved());
-        schedule.setSubjects(newScheduleDetails.getSubjects());
-        
-        return srepo.save(schedule);
+        resolveSubjects(schedule, newScheduleDetails.getRequestedSubjectIds());
+
+        ScheduleEntity saved = srepo.save(schedule);
+        publish(DataChangedEvent.Type.UPDATED, saved);
+        return saved;
+    }
+
+    // Found by its unique email, so it is the same row whichever instance asks. Instances racing to create
+    // it all end up with the one that won, as CatalogService does for offerings.
+    private UserEntity defaultUser() {
+        return userRepository.findByEmail(DEFAULT_EMAIL).orElseGet(() -> {
+            UserEntity user = new UserEntity();
+            user.setUsername("default");
+            user.setEmail(DEFAULT_EMAIL);
+            user.setFullName("Default User");
+            user.setPassword(passwordEncoder.encode("default"));
+            try {
+                return userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                return userRepository.findByEmail(DEFAULT_EMAIL).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    // Caches of schedule lists and compared profiles follow this event, here and on other instances
+    private void publish(DataChangedEvent.Type type, ScheduleEntity schedule) {
+        events.publishEvent(new ScheduleChangedEvent(type, schedule.getUser().getUserId(), schedule.getScheduleId()));
+    }
+
+    // Turns the subject IDs sent by the client into references, with one batched select
+    private void resolveSubjects(ScheduleEntity schedule, List<Long> subjectIds) {
+        if (subjectIds == null || subjectIds.isEmpty()) {
+            schedule.setSubjectList(new LinkedHashSet<>());
+            return;
+        }
+        schedule.setSubjectList(new LinkedHashSet<>(dataRepo.findAllById(subjectIds)));
+    }
+
+    // Moves subject IDs out of the old JSON column into schedule_subject, a page at a time.
+    // IDs of subjects that no longer exist are dropped. Every instance runs this on start; when two
+    // migrate the same page at once, the loser looks again and finds it done (a page failing twice is a real error).
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacySubjects() {
+        List<ScheduleEntity> page;
+        List<Integer> failedPage = null;
+        while (!(page = srepo.findTop200ByLegacySubjectsIsNotNull()).isEmpty()) {
+            Set<Long> allIds = new HashSet<>();
+            page.forEach(schedule -> allIds.addAll(ScheduleEntity.parseSubjectIds(schedule.getLegacySubjects())));
+            Map<Long, DataEntity> subjects = dataRepo.findAllById(allIds).stream()
+                .collect(Collectors.toMap(DataEntity::getDataId, Function.identity()));
+
+            for (ScheduleEntity schedule : page) {
+                Set<DataEntity> picked = new LinkedHashSet<>();
+                for (Long id : ScheduleEntity.parseSubjectIds(schedule.getLegacySubjects())) {
+                    if (subjects.containsKey(id)) {
+                        picked.add(subjects.get(id));
+                    }
+                }
+                schedule.setSubjectList(picked);
+                schedule.setLegacySubjects(null);
+            }
+            try {
+                srepo.saveAll(page);
+            } catch (DataAccessException e) {
+                List<Integer> ids = page.stream().map(ScheduleEntity::getScheduleId).toList();
+                if (ids.equals(failedPage)) {
+                    throw e;
+                }
+                failedPage = ids;
+                continue;
+            }
+            page.forEach(schedule -> listCache.evictSchedules(schedule.getUser().getUserId()));
+        }
     }
 
     // Delete
     //return type for delete is string bcs were jst going to print a success delete message
     public String deleteSchedule(int scheduleId) {
-        if (srepo.findById(scheduleId).isPresent()) {
+        ScheduleEntity schedule = srepo.findById(scheduleId).orElse(null);
+        if (schedule != null) {
             srepo.deleteById(scheduleId);
+            publish(DataChangedEvent.Type.DELETED, schedule);
             return "Schedule " + scheduleId + " is successfully deleted";
         } else {
             return "Schedule " + scheduleId + " does not exist";
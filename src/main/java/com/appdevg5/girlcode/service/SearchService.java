@@ -0,0 +1,125 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.appdevg5.girlcode.dto.SearchHit;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.repository.DataRepository;
+import com.appdevg5.girlcode.repository.DataSummary;
+import com.appdevg5.girlcode.schedule.ScheduleParser;
+import com.appdevg5.girlcode.schedule.SubjectSearchIndex;
+
+// Subject search over one SubjectSearchIndex, loaded on the first search and then kept current from DataChangedEvents.
+@Service
+public class SearchService {
+
+    private static final int LOAD_CHUNK = 1000;
+
+    @Autowired
+    DataRepository dataRepo;
+
+    @Value("${schedease.search.max-limit:100}")
+    int maxLimit;
+
+    private final SubjectSearchIndex index = new SubjectSearchIndex();
+    private volatile boolean loaded;
+
+    /**
+     * q: words or word prefixes, all of which must match. day: "M", "Th", "Wed"... after/before: times such as
+     * "8:00 AM" or "13:30". Blank values are ignored; unreadable ones throw IllegalArgumentException.
+     */
+    public List<SearchHit> search(String q, Long userId, String dept, String day, String after, String before,
+            int limit) {
+        SubjectSearchIndex.Query query = new SubjectSearchIndex.Query(q, userId, blankToNull(dept), day(day),
+                time("after", after), time("before", before), Math.min(Math.max(limit, 1), maxLimit));
+        return index().search(query).stream().map(SearchService::toHit).toList();
+    }
+
+    private SubjectSearchIndex index() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load(null);
+                    loaded = true;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Pages through the table so a full load never holds every entity at once
+    private void load(Long userId) {
+        long after = 0;
+        List<DataSummary> page;
+        do {
+            page = dataRepo.findSummaries(userId, after, Limit.of(LOAD_CHUNK));
+            for (DataSummary row : page) {
+                index.put(new SubjectSearchIndex.Doc(row.getDataId(), row.getUserId(), row.getSubject(),
+                        row.getSubjectTitle(), row.getOfferingDept(), row.getSection(), row.getSchedule(),
+                        row.getRoom(), row.getIsClosed(), ScheduleParser.parse(row.getSchedule())));
+                after = row.getDataId();
+            }
+        } while (page.size() == LOAD_CHUNK);
+    }
+
+    // Synchronized with the first load, so no event slips in between the load's read and it finishing
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        if (event.type() == DataChangedEvent.Type.CLEARED) {
+            // clearing keeps rows that schedules still use, so reload whatever is left
+            index.removeUser(event.userId());
+            load(event.userId());
+            return;
+        }
+        for (DataEntity data : event.rows()) {
+            if (event.type() == DataChangedEvent.Type.DELETED) {
+                index.remove(data.getDataId());
+            } else {
+                index.put(new SubjectSearchIndex.Doc(data.getDataId(), event.userId(), data.getSubject(),
+                        data.getSubjectTitle(), data.getOfferingDept(), data.getSection(), data.getSchedule(),
+                        data.getRoom(), data.getIsClosed(), ScheduleParser.parse(data.getSchedule())));
+            }
+        }
+    }
+
+    private static SearchHit toHit(SubjectSearchIndex.Hit hit) {
+        SubjectSearchIndex.Doc doc = hit.doc();
+        return new SearchHit(doc.id(), doc.userId(), doc.offeringDept(), doc.subject(), doc.subjectTitle(),
+                doc.section(), doc.schedule(), doc.room(), doc.isClosed(), hit.score());
+    }
+
+    private static Integer day(String text) {
+        if (blankToNull(text) == null) {
+            return null;
+        }
+        List<Integer> days = ScheduleParser.parseDays(text);
+        if (days.size() != 1) {
+            throw new IllegalArgumentException("day must be a single day such as M, Th or Wed, got: " + text);
+        }
+        return days.get(0);
+    }
+
+    private static Integer time(String name, String text) {
+        if (blankToNull(text) == null) {
+            return null;
+        }
+        int minutes = ScheduleParser.parseTime(text.trim());
+        if (minutes < 0) {
+            throw new IllegalArgumentException(name + " must be a time such as 8:00 AM or 13:30, got: " + text);
+        }
+        return minutes;
+    }
+
+    private static String blankToNull(String text) {
+        return text == null || text.isBlank() ? null : text.trim();
+    }
+}
@@ -0,0 +1,9 @@
+package com.appdevg5.girlcode.service;
+
+// Enroll on a section with no free slots, or unenroll on one with nobody enrolled
+public class SeatConflictException extends IllegalStateException {
+
+    public SeatConflictException(String message) {
+        super(message);
+    }
+}
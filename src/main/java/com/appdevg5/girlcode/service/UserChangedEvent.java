@@ -0,0 +1,8 @@
+package com.appdevg5.girlcode.service;
+
+/**
+ * Published by UserService after a user is updated or deleted, so anything holding that user
+ * (such as the login cache on other instances) can drop it.
+ */
+public record UserChangedEvent(Long userId) {
+}
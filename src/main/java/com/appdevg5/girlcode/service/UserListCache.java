@@ -0,0 +1,93 @@
+package com.appdevg5.girlcode.service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.appdevg5.girlcode.dto.ListSnapshot;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Per-user subject and schedule lists, kept serialized in the "userData" and "userSchedules" caches,
+ * and in their columnar form (see ColumnarJson) in "userDataColumns" and "userSchedulesColumns".
+ * Entries are evicted whenever DataService, ScheduleService or UserService changes that user; size and
+ * TTL limits and hit/miss stats come from spring.cache.caffeine.spec.
+ */
+@Component
+public class UserListCache {
+
+    public static final String DATA = "userData";
+    public static final String SCHEDULES = "userSchedules";
+    public static final String DATA_COLUMNS = "userDataColumns";
+    public static final String SCHEDULES_COLUMNS = "userSchedulesColumns";
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public ListSnapshot data(Long userId, Supplier<List<?>> loader) {
+        return load(DATA, userId, () -> objectMapper.writeValueAsBytes(loader.get()));
+    }
+
+    public ListSnapshot schedules(Long userId, Supplier<List<?>> loader) {
+        return load(SCHEDULES, userId, () -> objectMapper.writeValueAsBytes(loader.get()));
+    }
+
+    public ListSnapshot dataColumns(Long userId, Supplier<List<DataEntity>> loader) {
+        return load(DATA_COLUMNS, userId, () -> ColumnarJson.subjects(objectMapper, loader.get()));
+    }
+
+    public ListSnapshot schedulesColumns(Long userId, Supplier<List<ScheduleEntity>> loader) {
+        return load(SCHEDULES_COLUMNS, userId, () -> ColumnarJson.schedules(objectMapper, loader.get()));
+    }
+
+    // Schedules embed their subjects, so a subject change stales both lists
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        evictData(event.userId());
+    }
+
+    // A deleted user's lists must not outlive them, here or on other instances
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictData(event.userId());
+    }
+
+    // Including schedule writes replayed from other instances
+    @EventListener
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        evictSchedules(event.userId());
+    }
+
+    public void evictData(Long userId) {
+        cacheManager.getCache(DATA).evict(userId);
+        cacheManager.getCache(DATA_COLUMNS).evict(userId);
+        evictSchedules(userId);
+    }
+
+    public void evictSchedules(Long userId) {
+        cacheManager.getCache(SCHEDULES).evict(userId);
+        cacheManager.getCache(SCHEDULES_COLUMNS).evict(userId);
+    }
+
+    // Concurrent misses for the same user share one load. The ETag is weak: the same snapshot goes out both
+    // plain and gzipped, and Tomcat won't compress a response that carries a strong ETag.
+    private ListSnapshot load(String cacheName, Long userId, Callable<byte[]> serializer) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache.get(userId, () -> {
+            byte[] json = serializer.call();
+            return new ListSnapshot(json, "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        });
+    }
+}
@@ -1,20 +1,54 @@
 package com.appdevg5.girlcode.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.appdevg5.girlcode.entity.UserEntity;
 import com.appdevg5.girlcode.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 @Service
 public class UserService {
 
+    // A successful login is remembered as a salted SHA-256 of the credentials, so a repeat
+    // login within the TTL skips both the database and the deliberately slow BCrypt check.
+    private record RecentLogin(UserEntity user, byte[] verifier) {
+    }
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Cache<String, RecentLogin> recentLogins;
+    private final byte[] pepper = new byte[32];
+    private final String dummyHash;
+
+    public UserService(@Value("${schedease.login-cache.max-size:10000}") long maxSize,
+                       @Value("${schedease.login-cache.ttl:10m}") Duration ttl,
+                       PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+        this.recentLogins = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        new SecureRandom().nextBytes(pepper);
+        // unknown emails are checked against this so they take as long as a wrong password
+        this.dummyHash = passwordEncoder.encode("dummy-password");
+    }
+
     public List<UserEntity> getAllUsers() {
         return userRepository.findAll();
     }
@@ -24,30 +58,81 @@ public class UserService {
     }
 
     public UserEntity createUser(UserEntity user) {
+        if (user.getPassword() != null) {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        }
         return userRepository.save(user);
     }
 
     public UserEntity updateUser(Long id, UserEntity updatedUser) {
         return userRepository.findById(id).map(user -> {
+            recentLogins.invalidate(user.getEmail());
             user.setFullName(updatedUser.getFullName());
             user.setUsername(updatedUser.getUsername());
-            user.setPassword(updatedUser.getPassword());
+            if (updatedUser.getPassword() != null) {
+                user.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            }
             user.setEmail(updatedUser.getEmail());
-            return userRepository.save(user);
+            UserEntity saved = userRepository.save(user);
+            events.publishEvent(new UserChangedEvent(id));
+            return saved;
         }).orElse(null);
     }
 
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(user -> recentLogins.invalidate(user.getEmail()));
         userRepository.deleteById(id);
+        events.publishEvent(new UserChangedEvent(id));
+    }
+
+    // Another instance changed this user; its remembered logins here may hold an old password or email
+    public void forgetLogin(Long userId) {
+        recentLogins.asMap().values().removeIf(recent -> userId.equals(recent.user().getUserId()));
     }
 
     public UserEntity findByEmailAndPassword(String email, String password) {
-        List<UserEntity> users = userRepository.findAll();
-        for (UserEntity user : users) {
-            if (user.getEmail().equals(email) && user.getPassword().equals(password)) {
-                return user;
-            }
+        byte[] verifier = verifier(email, password);
+        RecentLogin recent = recentLogins.getIfPresent(email);
+        if (recent != null && MessageDigest.isEqual(recent.verifier(), verifier)) {
+            return recent.user();
+        }
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        if (user == null || user.getPassword() == null) {
+            passwordEncoder.matches(password, dummyHash);
+            return null;
+        }
+        if (!passwordMatches(user, password)) {
+            return null;
+        }
+        recentLogins.put(email, new RecentLogin(user, verifier));
+        return user;
+    }
+
+    // Accounts created before hashing still hold the plain password; it is checked
+    // once the old way and replaced with a hash on that successful login.
+    private boolean passwordMatches(UserEntity user, String password) {
+        String stored = user.getPassword();
+        if (stored.startsWith("$2")) {
+            return passwordEncoder.matches(password, stored);
+        }
+        if (!MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        user.setPassword(passwordEncoder.encode(password));
+        userRepository.save(user);
+        return true;
+    }
+
+    private byte[] verifier(String email, String password) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(pepper);
+            sha.update(email.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            return sha.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return null;
     }
-}
\ No newline at end of file
+}
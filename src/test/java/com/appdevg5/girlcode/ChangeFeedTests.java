@@ -0,0 +1,109 @@
+package com.appdevg5.girlcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.service.ChangeFeedService;
+import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ScheduleService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChangeFeedTests {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    ChangeFeedService changeFeed;
+
+    @Test
+    void writesArePushedToTheirUsersStream() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setEmail("feed" + System.nanoTime() + "@example.com");
+        user = userRepository.save(user);
+        Long userId = user.getUserId();
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/" + userId + "/events"))
+                        .header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (BufferedReader stream = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertEquals("event:ready", nextEvent(stream));
+            assertEquals(1, changeFeed.subscriberCount(userId));
+
+            DataEntity data = new DataEntity();
+            data.setUser(user);
+            data.setSubject("FEED1");
+            data = dataService.postData(data);
+            assertEquals("event:data", nextEvent(stream));
+            assertEquals("data:{\"type\":\"CREATED\",\"ids\":[" + data.getDataId() + "]}", stream.readLine());
+
+            // another user's write is not sent here
+            UserEntity other = new UserEntity();
+            other.setEmail("feed-other" + System.nanoTime() + "@example.com");
+            other = userRepository.save(other);
+            DataEntity elsewhere = new DataEntity();
+            elsewhere.setUser(other);
+            elsewhere.setSubject("FEED2");
+            dataService.postData(elsewhere);
+
+            ScheduleEntity schedule = new ScheduleEntity();
+            schedule.setUser(user);
+            schedule.setScheduleName("Plan");
+            schedule = scheduleService.postScheduleRecord(schedule);
+            scheduleService.deleteSchedule(schedule.getScheduleId());
+            assertEquals("event:schedule", nextEvent(stream));
+            assertEquals("data:{\"type\":\"CREATED\",\"ids\":[" + schedule.getScheduleId() + "]}", stream.readLine());
+            assertEquals("event:schedule", nextEvent(stream));
+            assertEquals("data:{\"type\":\"DELETED\",\"ids\":[" + schedule.getScheduleId() + "]}", stream.readLine());
+        }
+    }
+
+    // Skips blank and comment lines; fails instead of hanging if nothing arrives
+    private static String nextEvent(BufferedReader stream) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String line;
+                while ((line = stream.readLine()) != null) {
+                    if (line.startsWith("event:")) {
+                        return line;
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
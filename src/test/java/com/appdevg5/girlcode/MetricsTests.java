@@ -0,0 +1,103 @@
+package com.appdevg5.girlcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ScheduleService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureObservability
+class MetricsTests {
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void prometheusScrapeHasRequestPoolAndHibernateMetrics() {
+        assertEquals(HttpStatus.OK, rest.getForEntity("/api/data?limit=5", String.class).getStatusCode());
+
+        String scrape = rest.getForObject("/actuator/prometheus", String.class);
+        assertTrue(scrape.contains("http_server_requests_seconds_count{"), "request timer");
+        // every GET /api/data in this class, paged or not, is a single select
+        assertEquals(metric(scrape, "http_server_requests_queries_count{method=\"GET\",uri=\"/api/data\"}"),
+                metric(scrape, "http_server_requests_queries_sum{method=\"GET\",uri=\"/api/data\"}"), "queries per request");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "pool gauges");
+        assertTrue(scrape.contains("hibernate_statements_total"), "hibernate statistics");
+    }
+
+    @Test
+    void fullListsTakeOneStatementWhateverTheUserCount() {
+        for (int u = 0; u < 3; u++) {
+            UserEntity user = new UserEntity();
+            user.setEmail("lists" + u + "-" + System.nanoTime() + "@example.com");
+            user = userRepository.save(user);
+            StringBuilder picked = new StringBuilder();
+            for (int i = 0; i < 2; i++) {
+                DataEntity data = new DataEntity();
+                data.setUser(user);
+                data.setSubject("LIST" + i);
+                data.setSection("G" + u);
+                picked.append(picked.isEmpty() ? "" : ",").append(dataService.postData(data).getDataId());
+            }
+            ScheduleEntity schedule = new ScheduleEntity();
+            schedule.setUser(user);
+            schedule.setScheduleName("Plan");
+            schedule.setSubjects("[" + picked + "]");
+            scheduleService.postScheduleRecord(schedule);
+        }
+
+        long before = statements();
+        String data = rest.getForObject("/api/data", String.class);
+        assertEquals(1, statements() - before, "GET /api/data");
+        before = statements();
+        String schedules = rest.getForObject("/api/schedule/getAllSchedules", String.class);
+        assertEquals(1, statements() - before, "GET /api/schedule/getAllSchedules");
+
+        // users go out as their id only
+        assertTrue(data.contains("\"userId\":"));
+        assertFalse(data.contains("\"user\":"));
+        assertFalse(schedules.contains("\"user\":"));
+    }
+
+    private static double metric(String scrape, String series) {
+        return scrape.lines().filter(line -> line.startsWith(series + " "))
+                .mapToDouble(line -> Double.parseDouble(line.substring(series.length() + 1)))
+                .findFirst().orElseThrow();
+    }
+
+    private long statements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,135 @@
+package com.appdevg5.girlcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.appdevg5.girlcode.config.RoutingHintFilter;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ScheduleService;
+
+// Two instances in one JVM, sharing one H2 database and told about each other's writes by the database bus
+class MultiInstanceTests {
+
+    static ConfigurableApplicationContext a;
+    static ConfigurableApplicationContext b;
+    static final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void start() {
+        String url = "jdbc:h2:mem:cluster" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        a = node("a", url);
+        b = node("b", url);
+    }
+
+    @AfterAll
+    static void stop() {
+        b.close();
+        a.close();
+    }
+
+    static ConfigurableApplicationContext node(String name, String url) {
+        return new SpringApplicationBuilder(GirlcodeApplication.class).run("--server.port=0",
+                "--spring.datasource.url=" + url,
+                // the second instance must not drop the first one's tables
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.main.banner-mode=off",
+                "--schedease.cluster.bus=database",
+                "--schedease.cluster.poll-interval=50ms",
+                "--schedease.cluster.node-id=" + name);
+    }
+
+    @Test
+    void cachedListsFollowWritesMadeOnTheOtherInstance() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setEmail("cluster" + System.nanoTime() + "@example.com");
+        user = a.getBean(UserRepository.class).save(user);
+        Long userId = user.getUserId();
+
+        // both instances cache the empty lists
+        HttpResponse<String> fromA = get(a, "/api/data?userId=" + userId);
+        HttpResponse<String> fromB = get(b, "/api/data?userId=" + userId);
+        assertEquals("[]", fromB.body());
+        assertEquals(List.of("a", "b"), List.of(fromA.headers().firstValue(RoutingHintFilter.NODE_HEADER).get(),
+                fromB.headers().firstValue(RoutingHintFilter.NODE_HEADER).get()));
+        assertEquals(String.valueOf(RoutingHintFilter.partition(userId, 64)),
+                fromB.headers().firstValue(RoutingHintFilter.PARTITION_HEADER).get());
+        assertEquals("[]", get(b, "/api/schedule/getAllSchedules?userId=" + userId).body());
+
+        DataEntity data = new DataEntity();
+        data.setUser(user);
+        data.setSubject("NODE1");
+        data.setSchedule("MWF 8:00 AM - 9:00 AM");
+        Long dataId = a.getBean(DataService.class).postData(data).getDataId();
+        await(() -> get(b, "/api/data?userId=" + userId).body().contains("NODE1"));
+        await(() -> get(b, "/api/data/search?q=node1&userId=" + userId).body().contains("NODE1"));
+
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setUser(user);
+        schedule.setScheduleName("Shared plan");
+        schedule.setSubjects("[" + dataId + "]");
+        a.getBean(ScheduleService.class).postScheduleRecord(schedule);
+        await(() -> get(b, "/api/schedule/getAllSchedules?userId=" + userId).body().contains("Shared plan"));
+
+        b.getBean(DataService.class).deleteData(dataId);
+        await(() -> !get(a, "/api/data?userId=" + userId).body().contains("NODE1"));
+    }
+
+    @Test
+    void instancesRacingToCreateTheDefaultUserShareOne() throws Exception {
+        List<Future<ScheduleEntity>> saves = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(6)) {
+            for (int i = 0; i < 6; i++) {
+                ScheduleService service = (i % 2 == 0 ? a : b).getBean(ScheduleService.class);
+                saves.add(pool.submit(() -> {
+                    ScheduleEntity schedule = new ScheduleEntity();
+                    schedule.setScheduleName("Guest plan");
+                    return service.postScheduleRecord(schedule);
+                }));
+            }
+        }
+        Long owner = saves.get(0).get().getUserId();
+        for (Future<ScheduleEntity> save : saves) {
+            assertEquals(owner, save.get().getUserId());
+        }
+        assertTrue(a.getBean(UserRepository.class).findByEmail("default@example.com").isPresent());
+    }
+
+    static HttpResponse<String> get(ConfigurableApplicationContext node, String path) {
+        String port = node.getEnvironment().getProperty("local.server.port");
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "the other instance never saw the write");
+            Thread.sleep(25);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.appdevg5.girlcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.service.ColumnarJson;
+import com.appdevg5.girlcode.service.DataService;
+import com.appdevg5.girlcode.service.ScheduleService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Compression settings are repeated here because src/test/resources/application.properties replaces the main file
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.mime-types=application/json,application/vnd.schedease.columns+json",
+        "server.compression.min-response-size=2KB" })
+class WireFormatTests {
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void listsComeAsColumnsWhenAskedAndGzippedWhenLarge() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setEmail("wire" + System.nanoTime() + "@example.com");
+        user = userRepository.save(user);
+        Long userId = user.getUserId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            DataEntity data = new DataEntity();
+            data.setUser(user);
+            data.setOfferingDept("CCS");
+            data.setSubject("WIRE" + i);
+            data.setSection("G" + (i % 2));
+            data.setSchedule("MWF 8:00 AM - 9:00 AM");
+            data.setRoom(i % 3 == 0 ? null : "NGE10" + (i % 3));
+            ids.add(dataService.postData(data).getDataId());
+        }
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setUser(user);
+        schedule.setScheduleName("Plan");
+        schedule.setSubjects("[" + ids.get(0) + "," + ids.get(1) + "]");
+        scheduleService.postScheduleRecord(schedule);
+
+        // no Accept header: the plain list, as before
+        ResponseEntity<String> plain = rest.getForEntity("/api/data?userId=" + userId, String.class);
+        assertTrue(plain.getHeaders().getContentType().includes(MediaType.APPLICATION_JSON));
+        assertEquals(150, objectMapper.readTree(plain.getBody()).size());
+
+        JsonNode columns = objectMapper.readTree(get("/api/data?userId=" + userId, ColumnarJson.MEDIA_TYPE_VALUE, false)
+                .getBody());
+        assertEquals(150, columns.get("count").asInt());
+        assertEquals(ids.get(5).longValue(), columns.get("dataId").get(5).asLong());
+        assertEquals("WIRE5", columns.get("subject").get(5).asText());
+        assertEquals(List.of("CCS"), objectMapper.convertValue(columns.get("offeringDept").get("dict"), List.class));
+        assertTrue(columns.get("room").get("codes").get(0).isNull());
+        assertEquals("NGE101", columns.get("room").get("dict")
+                .get(columns.get("room").get("codes").get(1).asInt()).asText());
+
+        JsonNode schedules = objectMapper.readTree(get("/api/schedule/getAllSchedules?userId=" + userId,
+                ColumnarJson.MEDIA_TYPE_VALUE, false).getBody());
+        assertEquals("Plan", schedules.get("scheduleName").get(0).asText());
+        assertEquals(2, schedules.get("subjectList").get("count").asInt());
+        assertEquals("[0,1]", schedules.get("subjectRows").get(0).toString());
+
+        ResponseEntity<byte[]> zipped = get("/api/data?userId=" + userId, ColumnarJson.MEDIA_TYPE_VALUE, true);
+        assertEquals("gzip", zipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(zipped.getBody()))) {
+            assertEquals(columns, objectMapper.readTree(in));
+        }
+
+        // the ETag still revalidates the compressed copy
+        HttpHeaders revalidate = new HttpHeaders();
+        revalidate.set(HttpHeaders.ACCEPT, ColumnarJson.MEDIA_TYPE_VALUE);
+        revalidate.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        revalidate.set(HttpHeaders.IF_NONE_MATCH, zipped.getHeaders().getETag());
+        ResponseEntity<byte[]> notModified = rest.exchange("/api/data?userId=" + userId, HttpMethod.GET,
+                new HttpEntity<>(revalidate), byte[].class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
+    private ResponseEntity<byte[]> get(String url, String accept, boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, accept);
+        if (gzip) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+}
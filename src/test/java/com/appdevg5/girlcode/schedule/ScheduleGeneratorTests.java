@@ -0,0 +1,70 @@
+package com.appdevg5.girlcode.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ScheduleGeneratorTests {
+
+    @Test
+    void skipsConflictingSectionsAndRanksByGaps() {
+        List<List<ScheduleGenerator.Option>> courses = List.of(
+                List.of(option(1, "MWF 8:00 AM - 9:00 AM"), option(2, "MWF 1:00 PM - 2:00 PM")),
+                List.of(option(3, "MWF 8:30 AM - 9:30 AM"), option(4, "MWF 9:00 AM - 10:00 AM")));
+
+        List<ScheduleGenerator.Result> results = new ArrayList<>();
+        new ScheduleGenerator(courses, ScheduleGenerator.Rank.FEWEST_GAPS, 10, 1000).generate(results::add);
+
+        // 1+3 overlaps; 1+4 is back to back, so it ranks ahead of 2+3 and 2+4
+        assertEquals(3, results.size());
+        assertEquals(List.of(1L, 4L), results.get(0).ids());
+        assertEquals(0, results.get(0).gapMinutes());
+        assertEquals(480, results.get(0).earliestStart());
+    }
+
+    @Test
+    void backToBackSectionsOffTheSlotGridDontClash() {
+        List<List<ScheduleGenerator.Option>> courses = List.of(
+                List.of(option(1, "MW 10:30 AM - 11:45 AM")),
+                List.of(option(2, "MW 11:45 AM - 1:00 PM"), option(3, "MW 11:30 AM - 12:30 PM")));
+
+        List<ScheduleGenerator.Result> results = new ArrayList<>();
+        new ScheduleGenerator(courses, ScheduleGenerator.Rank.FEWEST_GAPS, 10, 1000).generate(results::add);
+
+        assertEquals(1, results.size());
+        assertEquals(List.of(1L, 2L), results.get(0).ids());
+    }
+
+    @Test
+    void tenCoursesWithSixSectionsEachKeepTheTopTwenty() {
+        Random random = new Random(42);
+        String[] days = { "MWF", "TTH", "MW", "TH", "S" };
+        List<List<ScheduleGenerator.Option>> courses = new ArrayList<>();
+        long id = 1;
+        for (int c = 0; c < 10; c++) {
+            List<ScheduleGenerator.Option> sections = new ArrayList<>();
+            for (int s = 0; s < 6; s++) {
+                int hour = 7 + random.nextInt(12);
+                String start = (hour % 12 == 0 ? 12 : hour % 12) + ":00 " + (hour < 12 ? "AM" : "PM");
+                String end = ((hour + 1) % 12 == 0 ? 12 : (hour + 1) % 12) + ":00 " + (hour + 1 < 12 ? "AM" : "PM");
+                sections.add(option(id++, days[random.nextInt(days.length)] + " " + start + " - " + end));
+            }
+            courses.add(sections);
+        }
+
+        List<ScheduleGenerator.Result> results = new ArrayList<>();
+        new ScheduleGenerator(courses, ScheduleGenerator.Rank.FEWEST_DAYS, 20, 5_000_000).generate(results::add);
+        assertEquals(20, results.size());
+        for (ScheduleGenerator.Result result : results) {
+            assertEquals(10, result.ids().size());
+        }
+    }
+
+    private static ScheduleGenerator.Option option(long id, String schedule) {
+        return ScheduleGenerator.Option.of(id, ScheduleParser.parse(schedule));
+    }
+}
@@ -0,0 +1,63 @@
+package com.appdevg5.girlcode.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ScheduleParserTests {
+
+    @Test
+    void parsesMultiDayPartsAndRooms() {
+        List<Meeting> meetings = ScheduleParser.parse("MWF 8:00 AM - 9:30 AM / TTH 1:00 PM - 4:00 PM NGE102");
+
+        assertEquals(5, meetings.size());
+        assertEquals(new Meeting(0, 480, 570), meetings.get(0));
+        assertEquals(new Meeting(4, 480, 570), meetings.get(2));
+        assertEquals(new Meeting(1, 780, 960), meetings.get(3));
+        assertEquals(new Meeting(3, 780, 960), meetings.get(4));
+    }
+
+    @Test
+    void readsDayWordsAndSkipsUnparseableParts() {
+        assertEquals(List.of(5, 6), ScheduleParser.parseDays("Sat Sun"));
+        assertEquals(List.of(3), ScheduleParser.parseDays("Thurs"));
+        assertEquals(List.of(6), ScheduleParser.parseDays("SU"));
+        assertEquals(1, ScheduleParser.parse("TBA / S 12:00 PM - 3:00 PM").size());
+        assertTrue(ScheduleParser.encode("TBA").isEmpty());
+        assertEquals(List.of(3), ScheduleParser.parseDays("Th"));
+        assertEquals(13 * 60 + 30, ScheduleParser.parseTime("1:30 PM"));
+        assertEquals(8 * 60, ScheduleParser.parseTime("8am"));
+        assertEquals(13 * 60 + 30, ScheduleParser.parseTime("13:30"));
+        assertEquals(-1, ScheduleParser.parseTime("noon"));
+    }
+
+    @Test
+    void masksRoundTripAndDetectOverlap() {
+        TimeSlots a = ScheduleParser.encode("MWF 8:00 AM - 9:30 AM");
+        TimeSlots b = ScheduleParser.encode("W 9:00 AM - 10:00 AM");
+        TimeSlots c = ScheduleParser.encode("TTH 8:00 AM - 9:30 AM / SU 7:30 PM - 9:00 PM");
+
+        assertTrue(a.intersects(b));
+        assertFalse(a.intersects(c));
+        assertEquals(a, TimeSlots.fromBytes(a.toBytes()));
+        assertEquals(c, TimeSlots.fromBytes(c.toBytes()));
+        assertArrayEquals(new byte[0], TimeSlots.EMPTY.toBytes());
+        assertEquals(ScheduleParser.parse("MWF 8:00 AM - 9:30 AM"), a.meetings());
+    }
+
+    @Test
+    void backToBackClassesOffTheGridShareASlotButDontOverlap() {
+        String first = "MW 10:30 AM - 11:45 AM";
+        String second = "MW 11:45 AM - 1:00 PM";
+
+        // the mask is only a prefilter: both round into the 11:40 slot
+        assertTrue(ScheduleParser.encode(first).intersects(ScheduleParser.encode(second)));
+        assertFalse(Meeting.anyOverlap(ScheduleParser.parse(first), ScheduleParser.parse(second)));
+        assertTrue(Meeting.anyOverlap(ScheduleParser.parse(first), ScheduleParser.parse("W 11:40 AM - 12:00 PM")));
+    }
+}
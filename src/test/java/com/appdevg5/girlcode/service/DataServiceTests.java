@@ -0,0 +1,481 @@
+package com.appdevg5.girlcode.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.appdevg5.girlcode.dto.BulkImportResult;
+import com.appdevg5.girlcode.dto.ConflictPair;
+import com.appdevg5.girlcode.dto.GenerateRequest;
+import com.appdevg5.girlcode.dto.ImportJobStatus;
+import com.appdevg5.girlcode.dto.KeysetPage;
+import com.appdevg5.girlcode.dto.OccupancyCell;
+import com.appdevg5.girlcode.dto.ScheduleComparison;
+import com.appdevg5.girlcode.dto.ListSnapshot;
+import com.appdevg5.girlcode.dto.SearchHit;
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.DataSummary;
+import com.appdevg5.girlcode.repository.ScheduleRepository;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.appdevg5.girlcode.schedule.Meeting;
+import com.appdevg5.girlcode.schedule.ScheduleGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+@SpringBootTest
+class DataServiceTests {
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ConflictService conflictService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    SearchService searchService;
+
+    @Autowired
+    ScheduleRepository scheduleRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ImportService importService;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    ScheduleCompareService compareService;
+
+    @Autowired
+    ScheduleGeneratorService generatorService;
+
+    Long userId;
+
+    @BeforeEach
+    void createUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("tester");
+        user.setEmail("tester" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        userId = userRepository.save(user).getUserId();
+    }
+
+    @Test
+    void bulkImportReportsPerRowResults() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            ndjson.append("{\"subject\":\"CS").append(i).append("\",\"section\":\"G1\",\"schedule\":\"MWF 8:00 AM - 9:00 AM\"}\n");
+        }
+        ndjson.append("{not json}\n");
+        ndjson.append("{\"section\":\"G2\"}\n");
+
+        BulkImportResult result = dataService.postDataBulk(userId, BulkRowReader.ndjson(objectMapper,
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(120, result.inserted());
+        assertEquals(2, result.failed());
+        assertNotNull(result.results().get(0).dataId());
+        assertNull(result.results().get(120).dataId());
+        assertEquals(120, dataService.getDataByUserId(userId).size());
+    }
+
+    @Test
+    void brokenJsonArrayKeepsTheRowsBeforeTheBreak() throws Exception {
+        String json = "[{\"subject\":\"CS1\"},{\"subject\":\"CS2\"},{\"subject\": ]";
+
+        BulkImportAbortedException e = assertThrows(BulkImportAbortedException.class,
+                () -> dataService.postDataBulk(userId, BulkRowReader.jsonArray(objectMapper,
+                        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))));
+
+        assertEquals(2, e.getResult().inserted());
+        assertEquals(2, dataService.getDataByUserId(userId).size());
+    }
+
+    @Test
+    void plainTextImportRunsAsAJob() throws Exception {
+        String text = "1\tCCS\tCS101\tIntro to Computing\t3\tG1\n"
+                + "M 8:00 AM - 9:00 AM\n"
+                + "W 8:00 AM - 9:00 AM\n"
+                + "RM101\t40\t38\t38\tNo\n"
+                + "\n"
+                + "2 CCS CS102 Data Structures 3 G2\n"
+                + "TTh 1:00 PM - 2:30 PM\n"
+                + "RM-202 40 40 40 Yes\n"
+                + "3\n";
+
+        ImportJobStatus job = importService.start(userId, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.state().equals("DONE") && !job.state().equals("FAILED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = importService.getStatus(job.jobId()).orElseThrow();
+        }
+
+        assertEquals("DONE", job.state());
+        assertEquals(3, job.parsed());
+        assertEquals(2, job.inserted());
+        assertEquals(1, job.failed());
+        assertEquals(2, job.failures().get(0).row());
+        assertEquals(job.totalBytes(), job.bytesRead());
+        List<DataEntity> rows = dataService.getDataByUserId(userId);
+        DataEntity intro = rows.stream().filter(data -> "CS101".equals(data.getSubject())).findFirst().orElseThrow();
+        assertEquals("Intro to Computing", intro.getSubjectTitle());
+        assertEquals(3, intro.getCreditedUnits());
+        assertEquals("M 8:00 AM - 9:00 AM / W 8:00 AM - 9:00 AM", intro.getSchedule());
+        assertEquals("RM101", intro.getRoom());
+        assertEquals(38, intro.getEnrolled());
+        assertEquals("false", intro.getIsClosed());
+        DataEntity structures = rows.stream().filter(data -> "CS102".equals(data.getSubject())).findFirst().orElseThrow();
+        assertEquals("RM-202", structures.getRoom());
+        assertEquals("true", structures.getIsClosed());
+    }
+
+    @Test
+    void conflictIndexFollowsWrites() {
+        DataEntity math = dataService.postData(row("MATH1", "MWF 8:00 AM - 9:30 AM"));
+        DataEntity physics = dataService.postData(row("PHYS1", "W 9:00 AM - 10:00 AM"));
+        DataEntity mathOther = dataService.postData(row("MATH1", "MWF 9:00 AM - 9:30 AM"));
+        dataService.postData(row("CHEM1", "TTH 8:00 AM - 9:30 AM"));
+        // back to back, sharing the 9:30 - 9:40 slot but not a minute
+        dataService.postData(row("ENG1", "S 8:05 AM - 9:35 AM"));
+        dataService.postData(row("HIST1", "S 9:35 AM - 10:00 AM"));
+
+        List<ConflictPair> conflicts = conflictService.getConflicts(userId, null);
+        assertEquals(2, conflicts.size());
+        assertEquals(new ConflictPair(math.getDataId(), physics.getDataId(), List.of(new Meeting(2, 540, 570))),
+                conflicts.get(0));
+        assertTrue(conflictService.getConflicts(userId, Set.of(math.getDataId(), mathOther.getDataId())).isEmpty());
+
+        DataEntity moved = row("PHYS1", "F 1:00 PM - 2:00 PM");
+        dataService.updateData(physics.getDataId(), moved);
+        dataService.deleteData(mathOther.getDataId());
+        assertTrue(conflictService.getConflicts(userId, null).isEmpty());
+    }
+
+    @Test
+    void searchMatchesPrefixesRanksAndFollowsWrites() {
+        DataEntity cs = row("CS101", "MWF 8:00 AM - 9:00 AM");
+        cs.setSubjectTitle("Intro to Programming");
+        cs.setOfferingDept("CCS");
+        cs = dataService.postData(cs);
+        DataEntity math = row("MATH20", "TTH 1:00 PM - 2:30 PM");
+        math.setSubjectTitle("Computer Mathematics");
+        math.setRoom("CS-LAB");
+        math = dataService.postData(math);
+
+        // "cs" is the subject of one row and only the room of the other
+        List<SearchHit> hits = searchService.search("cs", userId, null, null, null, null, 10);
+        assertEquals(List.of(cs.getDataId(), math.getDataId()), hits.stream().map(SearchHit::dataId).toList());
+        assertEquals(List.of(math.getDataId()), ids(searchService.search("comp math", userId, null, null, null, null, 10)));
+        assertEquals(List.of(cs.getDataId()), ids(searchService.search("", userId, "ccs", "W", null, "9:00 AM", 10)));
+        assertTrue(searchService.search("", userId, null, "Th", "2:00 PM", null, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("", userId, null, "MW", null, null, 10));
+
+        // off the 10-minute grid: the exact 10:45 start and 11:25 end still fit the window
+        DataEntity eng = dataService.postData(row("ENG5", "F 10:45 AM - 11:25 AM"));
+        assertEquals(List.of(eng.getDataId()),
+                ids(searchService.search("", userId, null, "F", "10:45 AM", "11:25 AM", 10)));
+        assertTrue(searchService.search("", userId, null, "F", "10:46 AM", null, 10).isEmpty());
+
+        DataEntity renamed = row("CS102", "MWF 8:00 AM - 9:00 AM");
+        dataService.updateData(cs.getDataId(), renamed);
+        dataService.deleteData(math.getDataId());
+        assertEquals(List.of(cs.getDataId()), ids(searchService.search("cs102", userId, null, null, null, null, 10)));
+        assertTrue(searchService.search("math", userId, null, null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void occupancyCountsEachSectionOnceAndFollowsWrites() {
+        String room = "OCC" + System.nanoTime();
+        occupancyService.getOccupancy();
+        DataEntity mine = section("OCC1", "G1", "MW 8:00 AM - 9:30 AM");
+        mine.setRoom(room);
+        mine.setTotalSlots(40);
+        mine.setEnrolled(10);
+        dataService.postData(mine);
+        createUser();
+        DataEntity theirs = section("OCC1", "G1", "MW 8:00 AM - 9:30 AM");
+        theirs.setRoom(room);
+        theirs.setTotalSlots(40);
+        theirs.setEnrolled(30);
+        theirs = dataService.postData(theirs);
+        DataEntity other = section("OCC2", "G1", "M 9:00 AM - 10:00 AM");
+        other.setRoom(" " + room.toLowerCase() + " ");
+        other.setTotalSlots(20);
+        other.setEnrolled(20);
+        dataService.postData(other);
+
+        List<OccupancyCell> monday = occupancyService.getOccupancy().stream()
+                .filter(cell -> cell.room().equals(room) && cell.day() == 0).toList();
+        assertEquals(List.of(
+                // the newest row's seats stand for the section
+                new OccupancyCell(room, 0, 480, 540, 1, 30, 40, 0.75),
+                new OccupancyCell(room, 0, 540, 570, 2, 50, 60, 50 / 60.0),
+                new OccupancyCell(room, 0, 570, 600, 1, 20, 20, 1.0)), monday);
+
+        dataService.deleteData(theirs.getDataId());
+        assertEquals(new OccupancyCell(room, 0, 480, 540, 1, 10, 40, 0.25), occupancyService.getOccupancy().stream()
+                .filter(cell -> cell.room().equals(room) && cell.day() == 0).findFirst().orElseThrow());
+    }
+
+    @Test
+    void identicalSectionsShareOneCatalogOffering() {
+        Long firstUser = userId;
+        DataEntity mine = dataService.postData(section("ENG1", "G1", "MWF 8:00 AM - 9:00 AM"));
+        createUser();
+        DataEntity theirs = dataService.postData(section("ENG1", "G1", "MWF 8:00 AM - 9:00 AM"));
+        DataEntity moved = dataService.postData(section("ENG1", "G1", "TTH 8:00 AM - 9:00 AM"));
+
+        assertNotNull(mine.getOfferingId());
+        assertEquals(mine.getOfferingId(), theirs.getOfferingId());
+        assertNull(jdbcTemplate.queryForObject("SELECT schedule FROM data_table WHERE data_id = ?", String.class,
+                theirs.getDataId()));
+        // same key, different details: kept as a private copy
+        assertNull(moved.getOfferingId());
+        assertEquals("TTH 8:00 AM - 9:00 AM", moved.getSchedule());
+
+        // editing a shared row copies it, leaving the other user's row alone
+        DataEntity edited = dataService.updateData(theirs.getDataId(), section("ENG1", "G1", "S 8:00 AM - 11:00 AM"));
+        assertNull(edited.getOfferingId());
+        assertEquals("MWF 8:00 AM - 9:00 AM", dataService.getDataByUserId(firstUser).get(0).getSchedule());
+        assertEquals(List.of("ENG1"), dataService.getDataPage(firstUser, 0, 10).items().stream()
+                .map(DataSummary::getSubject).toList());
+    }
+
+    @Test
+    void comparisonReportsMetricsAndDiffsAndFollowsEdits() {
+        DataEntity math = row("MATH1", "MW 8:00 AM - 9:30 AM");
+        math.setCreditedUnits(3);
+        math = dataService.postData(math);
+        DataEntity phys = row("PHYS1", "M 1:00 PM - 4:00 PM");
+        phys.setCreditedUnits(4);
+        phys = dataService.postData(phys);
+        DataEntity chem = row("CHEM1", "TTH 10:00 AM - 11:00 AM");
+        chem.setCreditedUnits(3);
+        chem = dataService.postData(chem);
+        int first = saveSchedule("Plan A", math, phys);
+        int second = saveSchedule("Plan B", math, chem);
+
+        ScheduleComparison comparison = compareService.compare(List.of(first, second));
+        ScheduleComparison.Metrics planA = comparison.schedules().get(0);
+        assertEquals(List.of("MATH1", "PHYS1"), planA.subjects());
+        assertEquals(7, planA.totalUnits());
+        // Monday 8:00-4:00 with a 9:30-1:00 gap, Wednesday 8:00-9:30
+        assertEquals(480 + 90, planA.campusMinutes());
+        assertEquals(210, planA.gapMinutes());
+        assertEquals(480, planA.earliestStart());
+        assertEquals(960, planA.latestEnd());
+        assertEquals(2, planA.daysOnCampus());
+        assertEquals(new ScheduleComparison.Diff(first, second, List.of("CHEM1"), List.of("PHYS1")),
+                comparison.pairs().get(0));
+
+        // editing a picked subject drops the cached profile; times are exact, not rounded to 10 minutes
+        DataEntity later = row("PHYS1", "M 2:15 PM - 5:05 PM");
+        later.setCreditedUnits(4);
+        dataService.updateData(phys.getDataId(), later);
+        ScheduleComparison.Metrics edited = compareService.compare(List.of(first)).schedules().get(0);
+        assertEquals(1025, edited.latestEnd());
+        assertEquals(285, edited.gapMinutes());
+        assertThrows(NoSuchElementException.class, () -> compareService.compare(List.of(first, -1)));
+    }
+
+    private int saveSchedule(String name, DataEntity... subjects) {
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setUser(row("X", null).getUser());
+        schedule.setScheduleName(name);
+        schedule.setSubjects(Arrays.stream(subjects).map(data -> "\"" + data.getDataId() + "\"")
+                .collect(Collectors.joining(",", "[", "]")));
+        return scheduleService.postScheduleRecord(schedule).getScheduleId();
+    }
+
+    @Test
+    void clearUserDataKeepsSubjectsPickedBySchedules() {
+        DataEntity kept = dataService.postData(row("MATH1", "MWF 8:00 AM - 9:00 AM"));
+        dataService.postData(row("PHYS1", "TTH 8:00 AM - 9:00 AM"));
+        DataEntity borrowed = dataService.postData(row("CHEM1", "S 8:00 AM - 11:00 AM"));
+
+        // another user's schedule picking a subject doesn't keep it
+        UserEntity other = new UserEntity();
+        other.setUsername("other");
+        other.setEmail("other" + System.nanoTime() + "@example.com");
+        other.setPassword("secret");
+        ScheduleEntity theirs = new ScheduleEntity();
+        theirs.setUser(userRepository.save(other));
+        theirs.setScheduleName("Not mine");
+        theirs.setSubjectList(new LinkedHashSet<>(List.of(borrowed)));
+        scheduleRepository.save(theirs);
+
+        // a schedule still stored in the old JSON column gets migrated into schedule_subject
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.setUser(row("X", null).getUser());
+        schedule.setScheduleName("Plan A");
+        schedule.setLegacySubjects("[\"" + kept.getDataId() + "\", \"data_7\"]");
+        scheduleRepository.save(schedule);
+        scheduleService.migrateLegacySubjects();
+
+        ScheduleEntity migrated = scheduleService.getSchedulesByUserId(userId).get(0);
+        assertEquals("[" + kept.getDataId() + "]", migrated.getSubjects());
+        assertEquals(1, migrated.getSubjectList().size());
+
+        assertEquals("Successfully deleted 2 items. 1 subjects preserved (in saved schedules)",
+                dataService.clearUserData(userId));
+        assertEquals(List.of(kept.getDataId()),
+                dataService.getDataByUserId(userId).stream().map(DataEntity::getDataId).toList());
+        assertEquals(0, scheduleService.getSchedulesByUserId(theirs.getUser().getUserId()).get(0).getSubjectList().size());
+    }
+
+    @Test
+    void notBeforeComparesExactStartMinutes() {
+        DataEntity early = dataService.postData(row("BIO1", "TTH 8:05 AM - 9:20 AM"));
+
+        List<ScheduleGenerator.Result> results = new ArrayList<>();
+        generatorService.prepare(new GenerateRequest(userId, List.of("bio1"), 5, null, "08:05", null))
+                .generate(results::add);
+        assertEquals(List.of(early.getDataId()), results.get(0).ids());
+
+        assertThrows(NoSuchElementException.class, () -> generatorService.prepare(
+                new GenerateRequest(userId, List.of("BIO1"), 5, null, "08:06", null)));
+    }
+
+    @Test
+    void pagesWalkTheUsersRowsInIdOrder() {
+        for (int i = 0; i < 5; i++) {
+            dataService.postData(row("CS" + i, "MWF 8:00 AM - 9:00 AM"));
+        }
+
+        KeysetPage<DataSummary> first = dataService.getDataPage(userId, 0, 3);
+        assertEquals(List.of("CS0", "CS1", "CS2"), first.items().stream().map(DataSummary::getSubject).toList());
+        assertEquals(userId, first.items().get(0).getUserId());
+
+        KeysetPage<DataSummary> second = dataService.getDataPage(userId, first.nextAfter(), 3);
+        assertEquals(List.of("CS3", "CS4"), second.items().stream().map(DataSummary::getSubject).toList());
+        assertNull(second.nextAfter());
+    }
+
+    @Test
+    void userListSnapshotIsReusedUntilTheUserWrites() {
+        DataEntity math = dataService.postData(row("MATH1", "MWF 8:00 AM - 9:00 AM"));
+        ListSnapshot first = dataService.getDataSnapshot(userId);
+        assertSame(first, dataService.getDataSnapshot(userId));
+
+        dataService.updateData(math.getDataId(), row("MATH1", "TTH 8:00 AM - 9:00 AM"));
+        ListSnapshot second = dataService.getDataSnapshot(userId);
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(new String(second.json(), StandardCharsets.UTF_8).contains("TTH 8:00 AM"));
+    }
+
+    @Test
+    void staleUpdatesAndFullSectionsAreRejected() throws Exception {
+        DataEntity section = row("MATH1", "MWF 8:00 AM - 9:00 AM");
+        section.setTotalSlots(5);
+        section.setIsClosed("false");
+        DataEntity saved = dataService.postData(section);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attempts.add(pool.submit(() -> dataService.enroll(saved.getDataId())));
+        }
+        int full = 0;
+        for (Future<?> attempt : attempts) {
+            try {
+                attempt.get();
+            } catch (ExecutionException e) {
+                assertInstanceOf(SeatConflictException.class, e.getCause());
+                full++;
+            }
+        }
+        pool.shutdown();
+        assertEquals(3, full);
+
+        DataEntity closed = dataService.getDataByUserId(userId).get(0);
+        assertEquals(5, closed.getEnrolled());
+        assertEquals("true", closed.getIsClosed());
+        assertEquals("false", dataService.unenroll(saved.getDataId()).getIsClosed());
+
+        // saved was read before the seat changes, so its version is stale
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> dataService.updateData(saved.getDataId(), saved));
+    }
+
+    @Test
+    void patchesChangeOnlyTheFieldsSent() throws Exception {
+        DataEntity shared = dataService.postData(section("HIST1", "G1", "MWF 8:00 AM - 9:00 AM"));
+
+        // seats live on the user's row, so the row stays linked to its catalog offering
+        JsonNode seats = dataService.patchData(shared.getDataId(),
+                (ObjectNode) objectMapper.readTree("{\"enrolled\": 7}"));
+        assertEquals(7, seats.get("enrolled").asInt());
+        assertEquals(shared.getOfferingId().longValue(), seats.get("offeringId").asLong());
+        assertEquals(shared.getVersion() + 1, seats.get("version").asLong());
+
+        JsonNode moved = dataService.patchData(shared.getDataId(),
+                (ObjectNode) objectMapper.readTree("{\"room\": \"NGE202\"}"));
+        assertTrue(moved.get("offeringId").isNull());
+        assertEquals("NGE202", moved.get("room").asText());
+        assertEquals("English", moved.get("subjectTitle").asText());
+        assertEquals(7, moved.get("enrolled").asInt());
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::dataId).toList();
+    }
+
+    private DataEntity section(String subject, String section, String schedule) {
+        DataEntity data = row(subject, schedule);
+        data.setTerm("2026-1");
+        data.setSection(section);
+        data.setSubjectTitle("English");
+        return data;
+    }
+
+    private DataEntity row(String subject, String schedule) {
+        UserEntity user = new UserEntity();
+        user.setUserId(userId);
+        DataEntity data = new DataEntity();
+        data.setUser(user);
+        data.setSubject(subject);
+        data.setSchedule(schedule);
+        return data;
+    }
+}
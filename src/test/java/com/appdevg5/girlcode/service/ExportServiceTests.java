@@ -0,0 +1,80 @@
+package com.appdevg5.girlcode.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.ScheduleEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+
+@SpringBootTest
+class ExportServiceTests {
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void exportsRowsAsCsvAndNdjson() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setUsername("exporter");
+        user.setEmail("exporter" + System.nanoTime() + "@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+
+        DataEntity math = new DataEntity();
+        math.setUser(user);
+        math.setSubject("MATH1");
+        math.setSubjectTitle("Calculus, Part \"A\"");
+        math.setSchedule("MWF 8:00 AM - 9:00 AM");
+        math = dataService.postData(math);
+
+        ScheduleEntity plan = new ScheduleEntity();
+        plan.setUser(user);
+        plan.setScheduleName("Plan A");
+        plan.setSubjects("[" + math.getDataId() + "]");
+        plan = scheduleService.postScheduleRecord(plan);
+        ScheduleEntity empty = new ScheduleEntity();
+        empty.setUser(user);
+        empty.setScheduleName("Empty");
+        empty = scheduleService.postScheduleRecord(empty);
+
+        List<String> csv = export(user.getUserId(), ExportService.Format.CSV, true).lines().toList();
+        assertEquals(String.join(",", ExportService.DATA_COLUMNS), csv.get(0));
+        assertEquals(math.getDataId() + ",,,MATH1,\"Calculus, Part \"\"A\"\"\",,,MWF 8:00 AM - 9:00 AM,,,,,",
+                csv.get(1));
+
+        assertEquals("{\"scheduleId\":" + plan.getScheduleId() + ",\"scheduleName\":\"Plan A\",\"isSaved\":false,"
+                + "\"subjects\":[{\"dataId\":" + math.getDataId() + ",\"subject\":\"MATH1\",\"section\":null,"
+                + "\"schedule\":\"MWF 8:00 AM - 9:00 AM\",\"room\":null}]}\n"
+                + "{\"scheduleId\":" + empty.getScheduleId() + ",\"scheduleName\":\"Empty\",\"isSaved\":false,"
+                + "\"subjects\":[]}\n",
+                export(user.getUserId(), ExportService.Format.NDJSON, false));
+    }
+
+    private String export(Long userId, ExportService.Format format, boolean data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (data) {
+            exportService.exportData(userId, format, out);
+        } else {
+            exportService.exportSchedules(userId, format, out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
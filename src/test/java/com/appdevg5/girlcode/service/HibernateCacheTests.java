@@ -0,0 +1,81 @@
+package com.appdevg5.girlcode.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "schedease.hibernate-cache.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+class HibernateCacheTests {
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void repeatedReadsSkipTheDatabaseUntilAWrite() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setEmail("cached" + System.nanoTime() + "@example.com");
+        Long userId = userRepository.save(user).getUserId();
+        DataEntity math = row(userId, "MATH1", "G1");
+        math = dataService.postData(math);
+        dataService.postData(row(userId, "PHYS1", "G2"));
+
+        assertEquals(2, dataService.getDataByUserId(userId).size());
+        userRepository.findById(userId);
+        long before = statements();
+        assertEquals(2, dataService.getDataByUserId(userId).size());
+        userRepository.findById(userId);
+        assertEquals(before, statements());
+
+        // JDBC bulk insert evicts the query region; Hibernate writes invalidate it themselves
+        dataService.postDataBulk(userId, BulkRowReader.ndjson(objectMapper, new ByteArrayInputStream(
+                "{\"subject\":\"CHEM1\",\"section\":\"G1\"}\n".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(3, dataService.getDataByUserId(userId).size());
+        DataEntity renamed = row(userId, "MATH2", "G1");
+        dataService.updateData(math.getDataId(), renamed);
+        assertEquals(1, dataService.getDataByUserId(userId).stream()
+                .filter(data -> "MATH2".equals(data.getSubject())).count());
+        dataService.deleteData(math.getDataId());
+        assertEquals(2, dataService.getDataByUserId(userId).size());
+    }
+
+    private long statements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static DataEntity row(Long userId, String subject, String section) {
+        UserEntity user = new UserEntity();
+        user.setUserId(userId);
+        DataEntity data = new DataEntity();
+        data.setUser(user);
+        data.setSubject(subject);
+        data.setSection(section);
+        data.setSchedule("MWF 8:00 AM - 9:00 AM");
+        return data;
+    }
+}
@@ -0,0 +1,49 @@
+package com.appdevg5.girlcode.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+
+@SpringBootTest
+class UserServiceTests {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void loginChecksHashedPasswords() {
+        UserEntity user = new UserEntity();
+        user.setEmail("ana@example.com");
+        user.setPassword("hunter22");
+        Long id = userService.createUser(user).getUserId();
+
+        assertTrue(userRepository.findById(id).get().getPassword().startsWith("$2"));
+        assertEquals(id, userService.findByEmailAndPassword("ana@example.com", "hunter22").getUserId());
+        // second login is served from the recent-login cache
+        assertEquals(id, userService.findByEmailAndPassword("ana@example.com", "hunter22").getUserId());
+        assertNull(userService.findByEmailAndPassword("ana@example.com", "wrong"));
+        assertNull(userService.findByEmailAndPassword("nobody@example.com", "hunter22"));
+    }
+
+    @Test
+    void plainTextPasswordIsUpgradedOnLogin() {
+        UserEntity legacy = new UserEntity();
+        legacy.setEmail("old@example.com");
+        legacy.setPassword("password123");
+        Long id = userRepository.save(legacy).getUserId();
+
+        assertNotNull(userService.findByEmailAndPassword("old@example.com", "password123"));
+        assertTrue(userRepository.findById(id).get().getPassword().startsWith("$2"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.appdevg5.girlcode.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.appdevg5.girlcode.entity.DataEntity;
+import com.appdevg5.girlcode.entity.UserEntity;
+import com.appdevg5.girlcode.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The interval is long so nothing is written until a read asks for it
+@SpringBootTest(properties = {
+        "schedease.write-behind.enabled=true",
+        "schedease.write-behind.interval=1h",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@RecordApplicationEvents
+class WriteBehindTests {
+
+    @Autowired
+    DataService dataService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ApplicationEvents events;
+
+    @Test
+    void patchesAreMergedAndWrittenOnceWhenTheListIsRead() throws Exception {
+        UserEntity user = user();
+        Long id = row(user, "WB1");
+
+        dataService.patchData(id, fields("{\"room\": \"NGE102\"}"));
+        JsonNode view = dataService.patchData(id, fields("{\"enrolled\": 5}"));
+        assertEquals("NGE102", view.get("room").asText());
+        assertEquals(5, view.get("enrolled").asInt());
+        assertEquals("WB1", view.get("subject").asText());
+        assertEquals(0L, version(id));
+
+        assertThrows(IllegalArgumentException.class, () -> dataService.patchData(id, fields("{\"version\": 9}")));
+        assertThrows(IllegalArgumentException.class, () -> dataService.patchData(id, fields("{\"enrolled\": \"x\"}")));
+        assertThrows(NoSuchElementException.class, () -> dataService.patchData(-1L, fields("{\"room\": \"X\"}")));
+
+        JsonNode list = objectMapper.readTree(dataService.getDataSnapshot(user.getUserId()).json());
+        assertEquals("NGE102", list.get(0).get("room").asText());
+        assertEquals(5, list.get(0).get("enrolled").asInt());
+        assertEquals("MWF 8:00 AM - 9:00 AM", list.get(0).get("schedule").asText());
+        assertEquals(1L, version(id));
+    }
+
+    @Test
+    void bufferedRowsAreReadOnceAndWrittenInOneBatch() throws Exception {
+        UserEntity user = user();
+        List<Long> ids = List.of(row(user, "WB2"), row(user, "WB3"), row(user, "WB4"));
+        for (Long id : ids) {
+            dataService.patchData(id, fields("{\"enrolled\": 7}"));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        dataService.getDataByUserId(user.getUserId());
+        // the rows by id, their catalog offerings, one batched UPDATE, then the list itself
+        assertEquals(4, statistics.getPrepareStatementCount() - before);
+        for (Long id : ids) {
+            assertEquals(1L, version(id));
+        }
+    }
+
+    @Test
+    void editsThatCantBeWrittenAreRetriedThenReported() throws Exception {
+        UserEntity user = user();
+        Long good = row(user, "WB5");
+        Long bad = row(user, "WB6");
+        dataService.patchData(good, fields("{\"enrolled\": 3}"));
+        dataService.patchData(bad, fields("{\"room\": \"" + "R".repeat(300) + "\"}"));
+
+        dataService.getDataByUserId(user.getUserId());
+        assertEquals(1L, version(good));
+        assertEquals(0, events.stream(PatchFailedEvent.class).count());
+
+        // a newer edit to the failing row rides along with the retries, and is lost with it
+        dataService.patchData(bad, fields("{\"enrolled\": 9}"));
+        for (int i = 1; i < DataPatchBuffer.MAX_ATTEMPTS; i++) {
+            dataService.getDataByUserId(user.getUserId());
+        }
+        assertEquals(List.of(new PatchFailedEvent(user.getUserId(), List.of(bad))),
+                events.stream(PatchFailedEvent.class).toList());
+        assertEquals(0L, version(bad));
+    }
+
+    private UserEntity user() {
+        UserEntity user = new UserEntity();
+        user.setEmail("behind" + System.nanoTime() + "@example.com");
+        return userRepository.save(user);
+    }
+
+    private Long row(UserEntity user, String subject) {
+        DataEntity data = new DataEntity();
+        data.setUser(user);
+        data.setSubject(subject);
+        data.setSection("G1");
+        data.setSchedule("MWF 8:00 AM - 9:00 AM");
+        data.setRoom("NGE101");
+        data.setEnrolled(1);
+        return dataService.postData(data).getDataId();
+    }
+
+    private ObjectNode fields(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+
+    private long version(Long id) {
+        return jdbcTemplate.queryForObject("select version from data_table where data_id = ?", Long.class, id);
+    }
+}